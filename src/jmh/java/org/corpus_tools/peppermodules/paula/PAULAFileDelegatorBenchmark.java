@@ -0,0 +1,75 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures mapping a document depending on the number of its files. The
+ * document is written by
+ * {@link PAULAFileDelegatorTest#createDocumentWithManyFiles(File, int)}, it
+ * consists of a text, a token file and {@link #numOfFiles} annotation files.
+ * When the effort for each file does not grow with the number of files, the
+ * time grows linearly with {@link #numOfFiles}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PAULAFileDelegatorBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int numOfFiles;
+
+	private File documentPath = null;
+
+	@Setup
+	public void setUp() throws Exception {
+		documentPath = Files.createTempDirectory("paulaManyFiles").resolve("doc").toFile();
+		PAULAFileDelegatorTest.createDocumentWithManyFiles(documentPath, numOfFiles);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		FileUtils.deleteDirectory(documentPath.getParentFile());
+	}
+
+	@Benchmark
+	public SDocumentGraph mapDocument() {
+		return PAULAFileDelegatorTest.mapDocument(documentPath, new PAULAImporterProperties());
+	}
+}
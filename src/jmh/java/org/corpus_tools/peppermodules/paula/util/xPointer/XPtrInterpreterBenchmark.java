@@ -0,0 +1,146 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.util.xPointer;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the interpretation of hrefs as they occur in PAULA files. Each
+ * invocation interprets {@link #NUM_OF_HREFS} hrefs of one {@link MIX}, the
+ * time and the allocated bytes are reported per href. The former
+ * implementation based on regular expressions {@link RegexXPtrInterpreter}
+ * is measured as baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XPtrInterpreterBenchmark {
+	static final String BASE = "doc.tok.xml";
+	static final int NUM_OF_HREFS = 1000;
+
+	/**
+	 * Kinds of hrefs, MIXED is a mix of all others as found in a corpus with
+	 * token, span and struct layers.
+	 */
+	public enum MIX {
+		STRING_RANGE, SHORTHAND, FULL_SHORTHAND, ID_RANGE, SEQUENCE, MIXED
+	}
+
+	@Param
+	public MIX mix;
+
+	private String[] hrefs = null;
+
+	@Setup
+	public void setUp() {
+		hrefs = createHrefs(mix, NUM_OF_HREFS);
+	}
+
+	static String[] createHrefs(MIX mix, int numOfHrefs) {
+		Random random = new Random(42);
+		String[] retVal = new String[numOfHrefs];
+		for (int i = 0; i < numOfHrefs; i++) {
+			MIX kind = mix;
+			if (MIX.MIXED.equals(mix)) {
+				// 40% shorthand, 20% string range, 15% id range, 15% full
+				// shorthand, 10% sequence
+				int r = random.nextInt(100);
+				kind = (r < 40) ? MIX.SHORTHAND
+						: (r < 60) ? MIX.STRING_RANGE
+								: (r < 75) ? MIX.ID_RANGE : (r < 90) ? MIX.FULL_SHORTHAND : MIX.SEQUENCE;
+			}
+			retVal[i] = createHref(kind, i + 1);
+		}
+		return retVal;
+	}
+
+	private static String createHref(MIX kind, int i) {
+		switch (kind) {
+		case STRING_RANGE:
+			return "#xpointer(string-range(//body,''," + (i * 7) + "," + (1 + i % 12) + "))";
+		case SHORTHAND:
+			return "#tok_" + i;
+		case FULL_SHORTHAND:
+			return BASE + "#tok_" + i;
+		case ID_RANGE:
+			return "#xpointer(id('tok_" + i + "')/range-to(id('tok_" + (i + 1 + i % 8) + "')))";
+		case SEQUENCE:
+			StringBuilder seq = new StringBuilder("(");
+			for (int j = 0; j < 20; j++) {
+				if (j > 0) {
+					seq.append(",");
+				}
+				if (j % 5 == 4) {
+					seq.append("#xpointer(id('tok_").append(i + j).append("')/range-to(id('tok_").append(i + j + 2)
+							.append("')))");
+				} else {
+					seq.append("#tok_").append(i + j);
+				}
+			}
+			return seq.append(")").toString();
+		default:
+			throw new IllegalArgumentException("Unknown kind of href: " + kind);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OF_HREFS)
+	public void regexInterpreter(Blackhole blackhole) throws Exception {
+		for (String href : hrefs) {
+			RegexXPtrInterpreter interpreter = new RegexXPtrInterpreter();
+			interpreter.setInterpreter(BASE, href);
+			blackhole.consume(interpreter.getResult());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OF_HREFS)
+	public void interpreter(Blackhole blackhole) throws Exception {
+		for (String href : hrefs) {
+			XPtrInterpreter interpreter = new XPtrInterpreter();
+			interpreter.setInterpreter(BASE, href);
+			blackhole.consume(interpreter.getResult());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OF_HREFS)
+	public void xPointer(Blackhole blackhole) throws Exception {
+		for (String href : hrefs) {
+			blackhole.consume(new XPointer(href).getResult(BASE));
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.util.xPointer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.corpus_tools.peppermodules.paula.util.xPointer.XPtrInterpreterBenchmark.MIX;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading the borders of string ranges from {@link XPtrRef}, as done
+ * for each token. The borders used to be parsed from the strings returned by
+ * {@link XPtrRef#getLeft()} and {@link XPtrRef#getRight()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XPtrRefBenchmark {
+
+	private List<XPtrRef> refs = null;
+
+	@Setup
+	public void setUp() throws Exception {
+		refs = new ArrayList<>(XPtrInterpreterBenchmark.NUM_OF_HREFS);
+		for (String href : XPtrInterpreterBenchmark.createHrefs(MIX.STRING_RANGE,
+				XPtrInterpreterBenchmark.NUM_OF_HREFS)) {
+			refs.addAll(new XPointer(href).getResult(XPtrInterpreterBenchmark.BASE));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(XPtrInterpreterBenchmark.NUM_OF_HREFS)
+	public int parseBorders() throws Exception {
+		int retVal = 0;
+		for (XPtrRef ref : refs) {
+			Integer left = Integer.valueOf(ref.getLeft());
+			Integer right = Integer.valueOf(ref.getRight());
+			left = left - 1;
+			right = left + right;
+			retVal += right - left;
+		}
+		return retVal;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(XPtrInterpreterBenchmark.NUM_OF_HREFS)
+	public int getStartAndLength() {
+		int retVal = 0;
+		for (XPtrRef ref : refs) {
+			int left = ref.getStart() - 1;
+			int right = left + ref.getLength();
+			retVal += right - left;
+		}
+		return retVal;
+	}
+}
@@ -20,16 +20,23 @@ package org.corpus_tools.peppermodules.paula;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Hashtable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.corpus_tools.pepper.common.DOCUMENT_STATUS;
 import org.corpus_tools.pepper.impl.PepperMapperImpl;
 import org.corpus_tools.pepper.modules.exceptions.PepperModuleException;
+import org.corpus_tools.peppermodules.paula.readers.PAULAReader;
 import org.corpus_tools.peppermodules.paula.readers.PAULASpecificReader;
 import org.corpus_tools.peppermodules.paula.readers.PAULAStructReader;
-import org.corpus_tools.peppermodules.paula.util.xPointer.XPtrInterpreter;
+import org.corpus_tools.peppermodules.paula.util.PAULAArchive;
+import org.corpus_tools.peppermodules.paula.util.xPointer.XPointer;
+import org.corpus_tools.peppermodules.paula.util.xPointer.XPointerCache;
 import org.corpus_tools.peppermodules.paula.util.xPointer.XPtrRef;
 import org.corpus_tools.salt.SaltFactory;
 import org.corpus_tools.salt.common.SDocumentGraph;
@@ -63,13 +70,93 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 
 	/**
 	 * {@inheritDoc PepperMapperImpl#initialize()} Initializes some hashtables
-	 * used for storing ids during mapping.
+	 * used for storing ids during mapping. The tables are only accessed by the
+	 * mapping thread, even if paula-files are parsed in parallel, see
+	 * {@link PAULAFileDelegator}.
 	 */
 	@Override
 	protected void initialize() {
-		elementNamingTable = new Hashtable<String, String>();
-		elementOrderTable = new Hashtable<String, Collection<String>>();
-		this.stagingArea = new Hashtable<String, Identifier>();
+		elementNamingTable = new HashMap<PAULAElementKey, String>();
+		fileNames = new HashMap<String, String>();
+		elementOrderTable = new HashMap<String, PAULAElementOrder>();
+		estimatedNumOfElements = Collections.emptyMap();
+		fileNamespaces = new HashMap<String, String>();
+		annotationNames = new HashMap<String, String[]>();
+		layers = new HashMap<String, SLayer>();
+		directoryListings = new HashMap<File, DirectoryListing>();
+		this.stagingArea = new HashMap<String, Identifier>();
+	}
+
+	/**
+	 * Average size of a paula-element in bytes, used to estimate the number of
+	 * elements of a paula-file by its size.
+	 */
+	private static final int AVG_BYTES_PER_ELEMENT = 64;
+	/**
+	 * Maximal estimated number of elements of a paula-file, to not allocate
+	 * too much memory for unexpectedly large files.
+	 */
+	private static final int MAX_ESTIMATED_ELEMENTS = 1 << 20;
+
+	/**
+	 * estimated number of elements of the paula-files containing marks or
+	 * structs, corresponding to the file name
+	 */
+	private Map<String, Integer> estimatedNumOfElements = null;
+
+	/**
+	 * Presizes the tables for storing ids before the paula-files are read. The
+	 * number of elements is estimated by the sizes of the files of the passed
+	 * plan. Must be called before the first file is read.
+	 */
+	void presizeTables(PAULAParsePlan parsePlan) {
+		if ((parsePlan == null) || (!elementNamingTable.isEmpty())) {
+			return;
+		}
+		estimatedNumOfElements = new HashMap<String, Integer>();
+		int numOfElements = 0;
+		for (PAULAParsePlan.Entry entry : parsePlan.getEntries()) {
+			String dtd = entry.getDtd();
+			if (PAULAReader.PAULA_DTD_TEXT.equalsIgnoreCase(dtd)) {
+				numOfElements++;
+			} else if ((PAULAReader.PAULA_DTD_MARK.equalsIgnoreCase(dtd))
+					|| (PAULAReader.PAULA_DTD_STRUCT.equalsIgnoreCase(dtd))
+					|| (PAULAReader.PAULA_DTD_REL.equalsIgnoreCase(dtd))) {
+				int estimate = (int) Math.min(MAX_ESTIMATED_ELEMENTS,
+						PAULAArchive.getSize(entry.getPaulaFile()) / AVG_BYTES_PER_ELEMENT);
+				numOfElements = (int) Math.min(Integer.MAX_VALUE / 2, (long) numOfElements + estimate);
+				if (!PAULAReader.PAULA_DTD_REL.equalsIgnoreCase(dtd)) {
+					// rels are not contained in the element order
+					estimatedNumOfElements.put(PAULAArchive.getUncompressedFile(entry.getPaulaFile()).getName(),
+							estimate);
+				}
+			}
+		}
+		elementNamingTable = new HashMap<PAULAElementKey, String>(getHashCapacity(numOfElements));
+		elementOrderTable = new HashMap<String, PAULAElementOrder>(
+				getHashCapacity(estimatedNumOfElements.size()));
+	}
+
+	/**
+	 * @return the initial capacity of a hash map, which can contain the
+	 *         passed number of entries without being resized
+	 */
+	static int getHashCapacity(int expectedSize) {
+		return (int) Math.min(Integer.MAX_VALUE, (long) (expectedSize / 0.75f) + 1);
+	}
+
+	/**
+	 * Returns the element order of the passed paula-file, the order is created
+	 * and presized, if it does not exist yet.
+	 */
+	private PAULAElementOrder getElementOrderSlot(File paulaFile) {
+		PAULAElementOrder orderedElementSlot = elementOrderTable.get(paulaFile.getName());
+		if (orderedElementSlot == null) {
+			Integer estimate = estimatedNumOfElements.get(paulaFile.getName());
+			orderedElementSlot = (estimate == null) ? new PAULAElementOrder() : new PAULAElementOrder(estimate);
+			elementOrderTable.put(paulaFile.getName(), orderedElementSlot);
+		}
+		return (orderedElementSlot);
 	}
 
 	private Boolean isArtificialSCorpus = false;
@@ -94,6 +181,7 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 									// to the one of a SDocument
 			PAULAFileDelegator paulaFileDelegator = new PAULAFileDelegator();
 			paulaFileDelegator.setMapper(this);
+			paulaFileDelegator.setParserEngine(getProps().getParserEngine());
 
 			if (getResourceURI() == null) {
 				throw new PepperModuleException(this,
@@ -102,8 +190,8 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 			File paulaPath = new File(getResourceURI().toFileString());
 			paulaFileDelegator.setPaulaPath(paulaPath);
 			// map all xml-documents
-			for (File paulaFile : paulaPath.listFiles()) {
-				String[] parts = paulaFile.getName().split("[.]");
+			for (File paulaFile : PAULAArchive.listFiles(paulaPath)) {
+				String[] parts = PAULAArchive.getUncompressedFile(paulaFile).getName().split("[.]");
 				if (parts.length > 1) {
 					for (String ending : this.getPAULA_FILE_ENDINGS()) {
 						if (parts[parts.length - 1].equalsIgnoreCase(ending)) {
@@ -151,12 +239,14 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 
 		PAULAFileDelegator paulaFileDelegator = new PAULAFileDelegator();
 		paulaFileDelegator.setMapper(this);
+		paulaFileDelegator.setNumOfThreads(getProps().getNumOfFileThreads());
+		paulaFileDelegator.setParserEngine(getProps().getParserEngine());
 		File paulaPath = new File(this.getResourceURI().toFileString());
 		paulaFileDelegator.setPaulaPath(paulaPath);
 
 		// map all xml-documents
-		for (File paulaFile : paulaPath.listFiles()) {
-			String[] parts = paulaFile.getName().split("[.]");
+		for (File paulaFile : PAULAArchive.listFiles(paulaPath)) {
+			String[] parts = PAULAArchive.getUncompressedFile(paulaFile).getName().split("[.]");
 			if (parts.length > 1) {
 				for (String ending : this.getPAULA_FILE_ENDINGS()) {
 					if (parts[parts.length - 1].equalsIgnoreCase(ending)) {
@@ -166,6 +256,10 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 			}
 		}
 		paulaFileDelegator.startPaulaFiles();
+		if (xPointerCache != null) {
+			logger.debug("[PAULAImporter] Resolved hrefs of document '{}' with {} cache hits and {} cache misses. ",
+					getDocument().getName(), xPointerCache.getHits(), xPointerCache.getMisses());
+		}
 
 		return (DOCUMENT_STATUS.COMPLETED);
 	}
@@ -198,24 +292,98 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 	 * referenced from other nodes. These nodes and relations are already in the
 	 * SDocument-graph.
 	 */
-	private Hashtable<String, Identifier> stagingArea = null;
+	private Map<String, Identifier> stagingArea = null;
 	// ======================================= end: staging area
 	/**
 	 * global naming table for all elements stores paulaId of one element and
 	 * corresponding salt id PAULAId, SaltId
 	 */
-	private Map<String, String> elementNamingTable = null;
+	private Map<PAULAElementKey, String> elementNamingTable = null;
+
+	/**
+	 * shared instances of the names of all paula-files, used as file of all
+	 * {@link PAULAElementKey}s stored by this mapper
+	 */
+	private Map<String, String> fileNames = null;
 
 	/**
-	 * Seperator, to be used in uniquenames.
+	 * Creates the key of a paula-element to be stored in
+	 * {@link #elementNamingTable} or {@link #elementOrderTable}. All keys of
+	 * one file share the same instance of the file name.
+	 * 
+	 * @param file
+	 *            name of the paula-file
+	 * @param id
+	 *            id of the element or null for the paula-file itself
 	 */
-	private static final String KW_NAME_SEP = "#";
+	PAULAElementKey createElementKey(String file, String id) {
+		String fileName = fileNames.get(file);
+		if (fileName == null) {
+			fileName = file;
+			fileNames.put(fileName, fileName);
+		}
+		return (new PAULAElementKey(fileName, id));
+	}
 
 	/**
 	 * stores paula-document-names and corresponding paula-elements in readed
 	 * order importent for interpreting xpointer (ranges)
 	 */
-	private Map<String, Collection<String>> elementOrderTable = null;
+	private Map<String, PAULAElementOrder> elementOrderTable = null;
+
+	/**
+	 * caches the paula-element-ids refered by an href, see
+	 * {@link #getPAULAElementIds(String, XPointer)}
+	 */
+	private XPointerCache<PAULAElementKey> xPointerCache = null;
+
+	/**
+	 * Returns the cache for resolved hrefs. The version of a paula-file is the
+	 * number of its elements in {@link #elementOrderTable}, since elements
+	 * are only added.
+	 */
+	public XPointerCache<PAULAElementKey> getXPointerCache() {
+		if (xPointerCache == null) {
+			int cacheSize = (getProperties() == null) ? PAULAImporterProperties.DEFAULT_XPOINTER_CACHE_SIZE
+					: getProps().getXPointerCacheSize();
+			xPointerCache = new XPointerCache<PAULAElementKey>(cacheSize, new XPointerCache.Versions() {
+				@Override
+				public int getVersion(String doc) {
+					PAULAElementOrder orderedElementSlot = elementOrderTable.get(doc);
+					return (orderedElementSlot == null) ? -1 : orderedElementSlot.size();
+				}
+			});
+		}
+		return xPointerCache;
+	}
+
+	/**
+	 * Looks up the element order of each paula-file only once, while a list
+	 * of hrefs is resolved, see {@link #getPAULAElementIds(String, List)}. The
+	 * versions for {@link #getXPointerCache()} are taken from the looked up
+	 * orders as well.
+	 */
+	private class ElementOrders implements XPointerCache.Versions {
+		private final Map<String, PAULAElementOrder> orders = new HashMap<String, PAULAElementOrder>();
+
+		public PAULAElementOrder get(String doc) {
+			PAULAElementOrder orderedElementSlot = orders.get(doc);
+			if (orderedElementSlot == null) {
+				orderedElementSlot = elementOrderTable.get(doc);
+				// an order is never replaced, see getElementOrderSlot()
+				if (orderedElementSlot != null) {
+					orders.put(doc, orderedElementSlot);
+				}
+			}
+			return (orderedElementSlot);
+		}
+
+		@Override
+		public int getVersion(String doc) {
+			PAULAElementOrder orderedElementSlot = get(doc);
+			return (orderedElementSlot == null) ? -1 : orderedElementSlot.size();
+		}
+	}
 
 	/**
 	 * Extracts the namespace of the paula file name and returns it.
@@ -227,10 +395,57 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 	private String extractNSFromPAULAFile(File paulaFile) {
 		String retVal = null;
 		if (paulaFile != null) {
+			if (fileNamespaces.containsKey(paulaFile.getName())) {
+				return (fileNamespaces.get(paulaFile.getName()));
+			}
 			String[] parts = paulaFile.getName().split("[.]");
 			if (parts[0] != null && !parts[0].equals(getProps().getEmptyNamespace())) {
 				retVal = parts[0];
 			}
+			fileNamespaces.put(paulaFile.getName(), retVal);
+		}
+		return (retVal);
+	}
+
+	/**
+	 * namespaces extracted from the names of paula-files, corresponding to the
+	 * file name, see {@link #extractNSFromPAULAFile(File)}
+	 **/
+	private Map<String, String> fileNamespaces = null;
+
+	/**
+	 * namespace and name of annotations, corresponding to the paula-type, see
+	 * {@link #getAnnotationName(String)}
+	 **/
+	private Map<String, String[]> annotationNames = null;
+
+	/**
+	 * Splits the passed paula-type into namespace and name of an annotation.
+	 * All annotations of a type share the same strings, since the split is
+	 * only computed once per document.
+	 * 
+	 * @return an array containing the namespace or null, if the type has no
+	 *         namespace, and the name
+	 */
+	private String[] getAnnotationName(String paulaType) {
+		String[] retVal = annotationNames.get(paulaType);
+		if (retVal == null) {
+			retVal = new String[2];
+			String[] parts = paulaType.split("[.]");
+			if ((parts != null) && (parts.length > 0)) {
+				retVal[1] = parts[parts.length - 1];
+			}
+			if ((parts != null) && (parts.length > 1)) {// namespace exists
+				String namespace = "";
+				for (int i = 0; i < parts.length - 1; i++) {
+					if (i == 0)
+						namespace = parts[0];
+					else
+						namespace = namespace + "." + parts[i];
+				}
+				retVal[0] = namespace;
+			} // namespace exists
+			annotationNames.put(paulaType, retVal);
 		}
 		return (retVal);
 	}
@@ -248,21 +463,7 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 		SLayer retVal = null;
 
 		if (sLayerName != null && sNode != null) {
-
-			// search if layer already exists
-			for (SLayer sLayer : getDocument().getDocumentGraph().getLayers()) {
-				if (sLayer.getName().equalsIgnoreCase(sLayerName)) {
-					retVal = sLayer;
-					break;
-				}
-			}
-
-			if (retVal == null) {// create new layer if not exists
-				retVal = SaltFactory.createSLayer();
-				retVal.setName(sLayerName);
-				getDocument().getDocumentGraph().addLayer(retVal);
-			} // create new layer if not exists
-
+			retVal = getSLayer(sLayerName);
 			// add sNode to sLayer
 			sNode.addLayer(retVal);
 		}
@@ -282,6 +483,30 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 		SLayer retVal = null;
 
 		if (sLayerName != null && sRel != null) {
+			retVal = getSLayer(sLayerName);
+			// add sNode to sLayer
+			sRel.addLayer(retVal);
+		}
+		return (retVal);
+	}
+
+	/**
+	 * layers of the document, corresponding to their name in lower case, since
+	 * layer names are compared case insensitive
+	 **/
+	private Map<String, SLayer> layers = null;
+
+	/**
+	 * Returns the sLayer corresponding to the given layer name. If no Layer
+	 * for this name exists, a new one will be created.
+	 * 
+	 * @param sLayerName
+	 *            name of the SLayer
+	 */
+	private SLayer getSLayer(String sLayerName) {
+		String key = sLayerName.toLowerCase();
+		SLayer retVal = layers.get(key);
+		if (retVal == null) {
 			// search if layer already exists
 			for (SLayer sLayer : getDocument().getDocumentGraph().getLayers()) {
 				if (sLayer.getName().equalsIgnoreCase(sLayerName)) {
@@ -295,9 +520,7 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 				retVal.setName(sLayerName);
 				getDocument().getDocumentGraph().addLayer(retVal);
 			} // create new layer if not exists
-
-			// add sNode to sLayer
-			sRel.addLayer(retVal);
+			layers.put(key, retVal);
 		}
 		return (retVal);
 	}
@@ -322,7 +545,7 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 					"Cannot map primary data to salt document, because no salt document-graph is given.");
 		}
 		// create uniqueName
-		String uniqueName = paulaFile.getName();
+		PAULAElementKey uniqueName = createElementKey(paulaFile.getName(), null);
 		String saltName = "text";
 		String[] splittedName = paulaFile.getName().split("[.]");
 		if (splittedName.length >= 4) {
@@ -332,10 +555,10 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 		STextualDS sTextualDS = null;
 
 		// check staging area
-		if (this.stagingArea.containsKey(uniqueName)) {
+		if (this.stagingArea.containsKey(uniqueName.getFile())) {
 			// take node which already exists in SDocumentGraph
 			sTextualDS = (STextualDS) getDocument().getDocumentGraph()
-					.getNode(this.stagingArea.get(uniqueName).getId());
+					.getNode(this.stagingArea.get(uniqueName.getFile()).getId());
 		} // take node which already exists in SDocumentGraph
 		else {// create new node for SDocument-graph
 				// create element
@@ -360,29 +583,21 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 	 * @throws Exception
 	 */
 	public void paulaMARK_TOKConnector(File paulaFile, String paulaId, String paulaType, String xmlBase, String markID,
-			String href, String markType) {
-		String uniqueName = paulaFile.getName() + KW_NAME_SEP + markID;
+			XPointer href, String markType) {
+		PAULAElementKey uniqueName = createElementKey(paulaFile.getName(), markID);
 		{
 			if (elementNamingTable == null)
 				throw new PepperModuleException(this,
 						"The map elementNamingTable was not initialized, this might be a bug.");
 			// create entry in element order table (file: elements)
-			if (elementOrderTable.get(paulaFile.getName()) == null) {
-				Collection<String> orderedElementSlot = new ArrayList<>();
-				elementOrderTable.put(paulaFile.getName(), orderedElementSlot);
-			}
-			Collection<String> orderedElementSlot = elementOrderTable.get(paulaFile.getName());
-			orderedElementSlot.add(uniqueName);
+			getElementOrderSlot(paulaFile).add(uniqueName);
 		}
 
-		// Objekt zum Interpretieren des XLinks in mark.href initialisieren
 		List<XPtrRef> xPtrRefs = null;
 
 		// extract
-		XPtrInterpreter xPtrInter = new XPtrInterpreter();
-		xPtrInter.setInterpreter(xmlBase, href);
 		try {
-			xPtrRefs = xPtrInter.getResult();
+			xPtrRefs = href.getResult(xmlBase);
 		} catch (Exception e) {
 			throw new PepperModuleException(this, "Cannot read href (" + href + ") in file " + paulaFile + ".", e);
 		}
@@ -390,8 +605,8 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 		int runs = 0;
 		// search for STextualDS
 		STextualDS sTextDS = null;
-		Integer left = null; // left offset
-		Integer right = null; // right offset
+		int left = -1; // left offset
+		int right = -1; // right offset
 		for (XPtrRef xPtrRef : xPtrRefs) {
 			if (xPtrRef.getDoc() == null) {
 				throw new PepperModuleException(this, "Cannot find a file reference in xpointer '" + xPtrRef + "'.");
@@ -404,7 +619,7 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 			}
 			// when XPointer refers to a text
 			else if (xPtrRef.getType() == XPtrRef.POINTERTYPE.TEXT) {
-				String textNodeName = elementNamingTable.get(xPtrRef.getDoc());
+				String textNodeName = elementNamingTable.get(new PAULAElementKey(xPtrRef.getDoc(), null));
 				sTextDS = (STextualDS) getDocument().getDocumentGraph().getNode(textNodeName);
 				if (sTextDS == null) {
 					throw new PepperModuleException(this,
@@ -412,33 +627,26 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 									+ "', because the referred TextualDS object for text '" + textNodeName
 									+ "' is empty. Known STextualDS objects are: " + elementNamingTable + ". ");
 				}
-				try {
-					left = Integer.valueOf(xPtrRef.getLeft());
-					right = Integer.valueOf(xPtrRef.getRight());
-					// arrange left and right value
-					left = left - 1;
-					right = left + right;
-					if (left > right) {
-						throw new PepperModuleException(this,
-								"Cannot create token, because its left value is higher than its right value. Error in document "
-										+ paulaFile.getName() + ". The left value is '" + left
-										+ "', hwereas the right value is '" + right + "'.");
-					}
-					if (left < 0) {
-						throw new PepperModuleException(this,
-								"Cannot create token, because its left value is smaller than 0. Error in document "
-										+ paulaFile.getName() + ". The left value is '" + left + "'.");
-					}
-					if (right > sTextDS.getText().length()) {
-						throw new PepperModuleException(this,
-								"Cannot create token, because its right value is higher than the size of the text. Error in document "
-										+ paulaFile.getName() + ". The right value is '" + right
-										+ "', but the length of the text only has the length of '"
-										+ sTextDS.getText().length() + "'.");
-					}
-				} catch (Exception e) {
+				// arrange left and right value
+				left = xPtrRef.getStart() - 1;
+				right = left + xPtrRef.getLength();
+				if (left > right) {
+					throw new PepperModuleException(this,
+							"Cannot create token, because its left value is higher than its right value. Error in document "
+									+ paulaFile.getName() + ". The left value is '" + left
+									+ "', hwereas the right value is '" + right + "'.");
+				}
+				if (left < 0) {
 					throw new PepperModuleException(this,
-							"The left or right border of XPointer is not set in a correct way: " + href, e);
+							"Cannot create token, because its left value is smaller than 0. Error in document "
+									+ paulaFile.getName() + ". The left value is '" + left + "'.");
+				}
+				if (right > sTextDS.getText().length()) {
+					throw new PepperModuleException(this,
+							"Cannot create token, because its right value is higher than the size of the text. Error in document "
+									+ paulaFile.getName() + ". The right value is '" + right
+									+ "', but the length of the text only has the length of '"
+									+ sTextDS.getText().length() + "'.");
 				}
 			}
 			// when XPointer does not refer to a text
@@ -451,7 +659,7 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 		// if no sTextDS exists-> error
 		if (sTextDS == null) {
 			throw new PepperModuleException(this,
-					"No primary data node found for token element: " + paulaFile.getName() + KW_NAME_SEP + markID);
+					"No primary data node found for token element: " + uniqueName);
 		}
 		// create SToken object
 		SToken sToken = SaltFactory.createSToken();
@@ -481,39 +689,45 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 	 * xpointer-expression.
 	 * 
 	 * @param xmlBase
-	 * @param href
+	 * @param xPointer
+	 */
+	Collection<PAULAElementKey> getPAULAElementIds(String xmlBase, XPointer xPointer) {
+		return (getPAULAElementIds(xmlBase, xPointer, new ElementOrders()));
+	}
+
+	/**
+	 * Returns for each of the given xpointer-expressions the list of all
+	 * paula-element-ids refered by it. Same as calling
+	 * {@link #getPAULAElementIds(String, XPointer)} for each expression, but
+	 * the element order of a paula-file refered by ranges is looked up once
+	 * for the whole list.
+	 * 
+	 * @param xmlBase
+	 * @param xPointers
 	 */
-	private Collection<String> getPAULAElementIds(String xmlBase, String href) {
-		Collection<String> refPaulaIds = null;
+	List<Collection<PAULAElementKey>> getPAULAElementIds(String xmlBase, List<XPointer> xPointers) {
+		ElementOrders elementOrders = new ElementOrders();
+		List<Collection<PAULAElementKey>> refPaulaIdsList = new ArrayList<Collection<PAULAElementKey>>(
+				xPointers.size());
+		for (XPointer xPointer : xPointers) {
+			refPaulaIdsList.add(getPAULAElementIds(xmlBase, xPointer, elementOrders));
+		}
+		return (refPaulaIdsList);
+	}
+
+	private Collection<PAULAElementKey> getPAULAElementIds(String xmlBase, XPointer xPointer,
+			ElementOrders elementOrders) {
+		Collection<PAULAElementKey> refPaulaIds = null;
+		String href = xPointer.getHref();
+		refPaulaIds = getXPointerCache().get(xmlBase, href, elementOrders);
+		if (refPaulaIds != null) {
+			return (refPaulaIds);
+		}
+		// files whose element order was used to resolve ranges
+		Collection<String> rangeDocs = new ArrayList<String>(1);
 		try {
-			refPaulaIds = new ArrayList<String>();
-			XPtrInterpreter xPtrInter = new XPtrInterpreter();
-			xPtrInter.setInterpreter(xmlBase, href);
-			List<XPtrRef> xPtrRefs = null;
-			try {
-				xPtrRefs = xPtrInter.getResult();
-			} catch (Exception e) {
-				// workaround if href are sequences of shorthand pointers like
-				// "#id1 id2 id3"
-				if ((href != null) && (href.contains(" "))) {
-					String hrefs[] = href.split(" ");
-					if (hrefs.length > 0) {
-						xPtrRefs = new ArrayList<XPtrRef>();
-						for (String idPtr : hrefs) {
-							xPtrInter = new XPtrInterpreter();
-							xPtrInter.setInterpreter(xmlBase, idPtr);
-							try {
-								xPtrRefs.addAll(xPtrInter.getResult());
-							} catch (Exception e1) {
-								throw new PepperModuleException(this, "Cannot parse xpointer in document '"
-										+ getResourceURI() + "' because of a nested exception.  ", e);
-							}
-						}
-					}
-				} else
-					throw e;
-			} // workaround if href are sequences of shorthand pointers like
-				// "#id1 id2 id3"
+			refPaulaIds = new ArrayList<PAULAElementKey>();
+			List<XPtrRef> xPtrRefs = xPointer.getResult(xmlBase);
 			for (XPtrRef xPtrRef : xPtrRefs) {
 				// Fehler, wenn XPointer-Reference vom falschen Typ
 				if (xPtrRef.getType() != XPtrRef.POINTERTYPE.ELEMENT)
@@ -524,40 +738,26 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 				// wenn XPointer-Bezugsknoten einen Bereich umfasst
 				if (xPtrRef.isRange()) {
 					// erzeuge den Namen des linken Bezugsknotens
-					String leftName = xPtrInter.getDoc() + KW_NAME_SEP + xPtrRef.getLeft();
+					PAULAElementKey leftName = new PAULAElementKey(xPtrRef.getDoc(), xPtrRef.getLeft());
 					// erzeuge den Namen des rechten Bezugsknotens
-					String rightName = xPtrInter.getDoc() + KW_NAME_SEP + xPtrRef.getRight();
+					PAULAElementKey rightName = new PAULAElementKey(xPtrRef.getDoc(), xPtrRef.getRight());
+					rangeDocs.add(xPtrRef.getDoc());
 					// extract all paula elements which are refered by this
 					// pointer
-					{
-
-						boolean start = false;
-						for (String paulaElementId : elementOrderTable.get(xPtrInter.getDoc())) {
-							// if true, first element was found
-							if (paulaElementId.equalsIgnoreCase(leftName))
-								start = true;
-							// if start of range is reached
-							if (start) {
-								refPaulaIds.add(paulaElementId);
-							}
-							// if last element was found, break
-							if (paulaElementId.equalsIgnoreCase(rightName))
-								break;
-						}
-					}
+					elementOrders.get(xPtrRef.getDoc()).getRange(leftName, rightName, refPaulaIds);
 				}
 				// wenn XPointer-Bezugsknoten einen einzelnen Knoten
 				// referenziert
 				else {
-					String paulaElementId = xPtrRef.getDoc() + KW_NAME_SEP + xPtrRef.getID();
+					PAULAElementKey paulaElementId = new PAULAElementKey(xPtrRef.getDoc(), xPtrRef.getID());
 					refPaulaIds.add(paulaElementId);
 				}
 			}
 		} catch (Exception e) {
-			e.printStackTrace();
 			throw new PepperModuleException(this,
 					"Cannot compute paula-ids corresponding to xmlBase '" + xmlBase + "' and href '" + href + "'.", e);
 		}
+		getXPointerCache().put(xmlBase, href, refPaulaIds, rangeDocs, elementOrders);
 
 		return (refPaulaIds);
 	}
@@ -572,26 +772,47 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 	 * @throws Exception
 	 */
 	public void paulaMARKConnector(File paulaFile, String paulaId, String paulaType, String xmlBase, String markID,
-			String href, String markType) {
-		// create unique name for current node
-		String uniqueName = paulaFile.getName() + KW_NAME_SEP + markID;
-		{
-			if (elementNamingTable == null)
-				throw new PepperModuleException(this,
-						"The map elementNamingTable was not initialized, this might be a bug.");
+			XPointer href, String markType) {
+		paulaMARKConnector(paulaFile, paulaId, paulaType, xmlBase, Collections.singletonList(markID),
+				Collections.singletonList(href));
+	}
+
+	/**
+	 * Recieves all marks of a markList from PAULAMarkReader and maps them to
+	 * Salt. Same as calling
+	 * {@link #paulaMARKConnector(File, String, String, String, String, XPointer, String)}
+	 * for each mark, but the hrefs of all marks are resolved at once, see
+	 * {@link #getPAULAElementIds(String, List)}.
+	 * 
+	 * @param markIDs
+	 *            ids of the marks
+	 * @param hrefs
+	 *            hrefs of the marks, corresponding to markIDs
+	 */
+	public void paulaMARKConnector(File paulaFile, String paulaId, String paulaType, String xmlBase,
+			List<String> markIDs, List<XPointer> hrefs) {
+		if (elementNamingTable == null)
+			throw new PepperModuleException(this,
+					"The map elementNamingTable was not initialized, this might be a bug.");
+		// create lists of all refered elements, marks only refer to tokens
+		List<Collection<PAULAElementKey>> refPAULAElementIdsList = this.getPAULAElementIds(xmlBase, hrefs);
+		PAULAElementOrder orderedElementSlot = getElementOrderSlot(paulaFile);
+		for (int i = 0; i < markIDs.size(); i++) {
+			// create unique name for current node
+			PAULAElementKey uniqueName = createElementKey(paulaFile.getName(), markIDs.get(i));
 			// create entry in element order table (file: elements)
-			if (elementOrderTable.get(paulaFile.getName()) == null) {
-				Collection<String> orderedElementSlot = new ArrayList<String>();
-				elementOrderTable.put(paulaFile.getName(), orderedElementSlot);
-			}
-			Collection<String> orderedElementSlot = elementOrderTable.get(paulaFile.getName());
 			orderedElementSlot.add(uniqueName);
+			mapMark(paulaFile, paulaId, xmlBase, markIDs.get(i), uniqueName, refPAULAElementIdsList.get(i));
 		}
-		// create list of all refered elements
-		Collection<String> refPAULAElementIds = this.getPAULAElementIds(xmlBase, href);
+	}
 
+	/**
+	 * Creates a span for the mark, which spans the referred tokens.
+	 */
+	private void mapMark(File paulaFile, String paulaId, String xmlBase, String markID,
+			PAULAElementKey uniqueName, Collection<PAULAElementKey> refPAULAElementIds) {
 		List<SNode> referedElements = new ArrayList<SNode>();
-		for (String refPAULAId : refPAULAElementIds) {
+		for (PAULAElementKey refPAULAId : refPAULAElementIds) {
 			String paulaIdEntry = elementNamingTable.get(refPAULAId);
 			if (paulaIdEntry == null)
 				throw new PepperModuleException(this, "Cannot map the markable '" + markID + "' of file '" + paulaId
@@ -625,7 +846,8 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 
 			// create relations for all referenced tokens
 			SSpanningRelation sSpanRel = null;
-			for (String refPAULAId : refPAULAElementIds) {
+			SLayer sSpanRelLayer = null;
+			for (PAULAElementKey refPAULAId : refPAULAElementIds) {
 				SNode dstNode = getDocument().getDocumentGraph().getNode(elementNamingTable.get(refPAULAId));
 				if (dstNode == null) {
 
@@ -640,9 +862,13 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 					sSpanRel.setSource(sSpan);
 					sSpanRel.setTarget((SToken) dstNode);
 					getDocument().getDocumentGraph().addRelation(sSpanRel);
-					// adding sSpanRel to layer
-					sLayerName = this.extractNSFromPAULAFile(paulaFile);
-					attachSRelation2SLayer(sSpanRel, sLayerName);
+					// adding sSpanRel to layer, which is the same for all
+					// relations of the span
+					if (sSpanRelLayer == null) {
+						sSpanRelLayer = attachSRelation2SLayer(sSpanRel, sLayerName);
+					} else {
+						sSpanRel.addLayer(sSpanRelLayer);
+					}
 				}
 			}
 		}
@@ -660,137 +886,295 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 	 * @throws Exception
 	 */
 	public void paulaFEATConnector(File paulaFile, String paulaId, String paulaType, String xmlBase, String featID,
-			String featHref, String featTar, String featVal, String featDesc, String featExp) {
+			XPointer featHref, String featTar, String featVal, String featDesc, String featExp) {
+		paulaFEATConnector(paulaFile, paulaId, paulaType, xmlBase, Collections.singletonList(featHref),
+				Collections.singletonList(featVal));
+	}
+
+	/**
+	 * Receives all feats of a featList from PAULAFeatReader and maps them to
+	 * Salt. Same as calling
+	 * {@link #paulaFEATConnector(File, String, String, String, String, XPointer, String, String, String, String)}
+	 * for each feat, but the hrefs of all feats are resolved at once, see
+	 * {@link #getPAULAElementIds(String, List)}.
+	 * 
+	 * @param featHrefs
+	 *            hrefs of the feats
+	 * @param featVals
+	 *            values of the feats, corresponding to featHrefs
+	 */
+	public void paulaFEATConnector(File paulaFile, String paulaId, String paulaType, String xmlBase,
+			List<XPointer> featHrefs, List<String> featVals) {
 		if ((paulaType == null) || (paulaType.isEmpty())) {
 			logger.warn("[PAULAImporter] Cannot work with the given annotation of element: " + paulaId
 					+ ", because the type-value is empty. Error in file: " + paulaFile + ".");
 		} else {
-			if ((featVal == null) || (featVal.isEmpty())) {
-				logger.warn("[PAULAImporter] The feature value of an element in the following file is empty: "
-						+ paulaFile + ". Therefore this feature is ignored. ");
+			List<Collection<PAULAElementKey>> paulaElementIdsList = this.getPAULAElementIds(xmlBase, featHrefs);
+			for (int i = 0; i < featHrefs.size(); i++) {
+				Collection<PAULAElementKey> paulaElementIds = paulaElementIdsList.get(i);
+				SAnnotation sAnno = createSAnnotation(paulaFile, paulaType, featVals.get(i), paulaElementIds);
+				if (sAnno != null) {
+					// sanno is null, if annotation had an audio file as value
+					addSAnnotation(sAnno, getAnnotatableElements(paulaFile, paulaElementIds), featHrefs.get(i));
+				}
 			}
+		}
+	}
 
-			Collection<String> paulaElementIds = this.getPAULAElementIds(xmlBase, featHref);
-			SAnnotation sAnno = SaltFactory.createSAnnotation();
+	/**
+	 * Recieves data from PAULAMultiFeatReader and maps them to Salt. All feats
+	 * of one multiFeat-element annotate the same elements, therefore the href
+	 * of the multiFeat-element is resolved once and all annotations are added
+	 * to the referred elements at once. Same as calling
+	 * {@link #paulaFEATConnector(File, String, String, String, String, XPointer, String, String, String, String)}
+	 * for each feat.
+	 * 
+	 * @param multiFeatHref
+	 *            the href of the multiFeat-element
+	 * @param featNames
+	 *            names of the nested feats, used as paula-type
+	 * @param featVals
+	 *            values of the nested feats, corresponding to featNames
+	 */
+	public void paulaMULTIFEATConnector(File paulaFile, String paulaId, String xmlBase, String multiFeatID,
+			XPointer multiFeatHref, List<String> featNames, List<String> featVals) {
+		Collection<PAULAElementKey> paulaElementIds = null;
+		List<SAnnotationContainer> annotatableElements = null;
+		for (int i = 0; i < featNames.size(); i++) {
+			String paulaType = featNames.get(i);
+			if ((paulaType == null) || (paulaType.isEmpty())) {
+				logger.warn("[PAULAImporter] Cannot work with the given annotation of element: " + paulaId
+						+ ", because the type-value is empty. Error in file: " + paulaFile + ".");
+				continue;
+			}
+			if (paulaElementIds == null) {
+				paulaElementIds = this.getPAULAElementIds(xmlBase, multiFeatHref);
+			}
+			SAnnotation sAnno = createSAnnotation(paulaFile, paulaType, featVals.get(i), paulaElementIds);
+			if (sAnno != null) {
+				if (annotatableElements == null) {
+					annotatableElements = getAnnotatableElements(paulaFile, paulaElementIds);
+				}
+				addSAnnotation(sAnno, annotatableElements, multiFeatHref);
+			}
+		}
+	}
 
-			if ((paulaType != null) && (!paulaType.isEmpty())) {
-				// extract type name and namespace
-				String[] parts = paulaType.split("[.]");
-				if ((parts != null) && (parts.length > 0)) {
-					sAnno.setName(parts[parts.length - 1]);
+	/**
+	 * Creates an annotation for a feat of the passed paula-type. In case the
+	 * value refers to an audio file, an {@link SMedialDS} is created and
+	 * related to the tokens overlapped by the referred elements instead.
+	 * 
+	 * @return the annotation or null, if the value is an audio file
+	 */
+	private SAnnotation createSAnnotation(File paulaFile, String paulaType, String featVal,
+			Collection<PAULAElementKey> paulaElementIds) {
+		if ((featVal == null) || (featVal.isEmpty())) {
+			logger.warn("[PAULAImporter] The feature value of an element in the following file is empty: "
+					+ paulaFile + ". Therefore this feature is ignored. ");
+		}
+		SAnnotation sAnno = SaltFactory.createSAnnotation();
+
+		// extract type name and namespace
+		String[] annotationName = getAnnotationName(paulaType);
+		if (annotationName[1] != null) {
+			sAnno.setName(annotationName[1]);
+		}
+		if (annotationName[0] != null) {// namespace exists
+			sAnno.setNamespace(annotationName[0]);
+		} // namespace exists
+		else if (getProps().getAnnoNamespaceFromFile()) {// compute
+															// namespace
+															// from file
+															// name
+			String annoNamespace = this.extractNSFromPAULAFile(paulaFile);
+			if (annoNamespace != null && !annoNamespace.isEmpty()) {
+				sAnno.setNamespace(annoNamespace);
+			}
+		} // compute namespace from file name
+
+		// a featVal can contain a simple textual value or even a file
+		// reference, to find out whether a featVal is a file or a
+		// simple value, we check whether the string contains a '.'
+		// followed by another character and whether the file exists
+		File file = null;
+		if ((featVal != null) && (isFileFeature(sAnno.getName()))) {
+			char[] featChar = featVal.toCharArray();
+			boolean hasPeriod = false;
+			boolean lastChrIsNotPeriod = false;
+			for (char chr : featChar) {
+				if (chr == '.') {
+					hasPeriod = true;
 				}
-				if ((parts != null) && (parts.length > 1)) {// namespace exists
-					String namespace = "";
-					for (int i = 0; i < parts.length - 1; i++) {
-						if (i == 0)
-							namespace = parts[0];
-						else
-							namespace = namespace + "." + parts[i];
-						i++;
-					}
-					sAnno.setNamespace(namespace);
-				} // namespace exists
-				else if (getProps().getAnnoNamespaceFromFile()) {// compute
-																	// namespace
-																	// from file
-																	// name
-					String annoNamespace = this.extractNSFromPAULAFile(paulaFile);
-					if (annoNamespace != null && !annoNamespace.isEmpty()) {
-						sAnno.setNamespace(annoNamespace);
-					}
-				} // compute namespace from file name
-
-				// a featVal can contain a simple textual value or even a file
-				// reference, to find out whether a featVal is a file or a
-				// simple value, we check whether the string contains a '.'
-				// followed by another character and whether the file exists
-				File file = null;
-				if (featVal != null) {
-					char[] featChar = featVal.toCharArray();
-					boolean hasPeriod = false;
-					boolean lastChrIsNotPeriod = false;
-					for (char chr : featChar) {
-						if (chr == '.') {
-							hasPeriod = true;
-						}
-						if (hasPeriod && chr != '.') {
-							lastChrIsNotPeriod = true;
-						}
-					}
-					if (hasPeriod && lastChrIsNotPeriod) {
-						URI location = URI.createFileURI(featVal).resolve(getResourceURI());
-						file = new File(location.toFileString());
-						if (!file.exists()) {
-							file = null;
-						}
-					}
+				if (hasPeriod && chr != '.') {
+					lastChrIsNotPeriod = true;
 				}
-				if (file != null) {
-					// if featVal is a file reference and of type audio,
-					// create an SAudio
-					if (PAULAXMLDictionary.KW_AUDIO.equalsIgnoreCase(sAnno.getName())) {
-						SMedialDS audio = SaltFactory.createSMedialDS();
-						audio.setMediaReference(URI.createFileURI(file.getAbsolutePath()));
-						getDocument().getDocumentGraph().addNode(audio);
-						for (String paulaElementId : paulaElementIds) {
-							if ((paulaElementId == null) || (paulaElementId.isEmpty())) {
-								throw new PepperModuleException(this,
-										"No element with xml-id:" + paulaElementId + " was found.");
-							}
-							String sElementName = elementNamingTable.get(paulaElementId);
-							SNode refNode = getDocument().getDocumentGraph().getNode(sElementName);
-							if (refNode != null) {
-								List<SToken> tokens = getDocument().getDocumentGraph().getOverlappedTokens(refNode);
-								if (tokens != null) {
-									for (SToken tok : tokens) {
-										SMedialRelation rel = SaltFactory.createSMedialRelation();
-										rel.setTarget(audio);
-										rel.setSource(tok);
-										getDocument().getDocumentGraph().addRelation(rel);
-									}
-								}
-							}
-						}
-						sAnno = null;
-					} else {
-						sAnno.setValue(URI.createFileURI(file.getAbsolutePath()));
-					}
-				} else {
-					sAnno.setValue(featVal);
+			}
+			if (hasPeriod && lastChrIsNotPeriod) {
+				URI location = URI.createFileURI(featVal).resolve(getResourceURI());
+				file = new File(location.toFileString());
+				if (!fileExists(file)) {
+					file = null;
 				}
 			}
-			if (sAnno != null) {
-				// sanno is null, if annotation had an audio file as value
-				for (String paulaElementId : paulaElementIds) {
-					if ((paulaElementId == null) || (paulaElementId.isEmpty())) {
+		}
+		if (file != null) {
+			// if featVal is a file reference and of type audio,
+			// create an SAudio
+			if (PAULAXMLDictionary.KW_AUDIO.equalsIgnoreCase(sAnno.getName())) {
+				SMedialDS audio = SaltFactory.createSMedialDS();
+				audio.setMediaReference(URI.createFileURI(file.getAbsolutePath()));
+				getDocument().getDocumentGraph().addNode(audio);
+				for (PAULAElementKey paulaElementId : paulaElementIds) {
+					if (paulaElementId == null) {
 						throw new PepperModuleException(this,
 								"No element with xml-id:" + paulaElementId + " was found.");
 					}
 					String sElementName = elementNamingTable.get(paulaElementId);
-					if (sElementName == null) {
-						logger.warn(
-								"[PAULAImporter] An element was reffered by an annotation, which does not exist in paula file. The missing element is '"
-										+ paulaElementId + "' and it was refferd in file'" + paulaFile.getAbsolutePath()
-										+ "'.");
-					} else {
-						SNode refElement = getDocument().getDocumentGraph().getNode(sElementName);
-						SRelation refRelation = getDocument().getDocumentGraph().getRelation(sElementName);
-						if (refElement != null) {
-							try {
-								refElement.addAnnotation(sAnno);
-							} catch (Exception e) {
-								logger.warn("[PAULAImporter] Exception in paula file: "
-										+ this.getResourceURI().toFileString() + " at element: " + featHref
-										+ ". Original message is: " + e.getMessage());
+					SNode refNode = getDocument().getDocumentGraph().getNode(sElementName);
+					if (refNode != null) {
+						List<SToken> tokens = getDocument().getDocumentGraph().getOverlappedTokens(refNode);
+						if (tokens != null) {
+							for (SToken tok : tokens) {
+								SMedialRelation rel = SaltFactory.createSMedialRelation();
+								rel.setTarget(audio);
+								rel.setSource(tok);
+								getDocument().getDocumentGraph().addRelation(rel);
 							}
-						} else if (refRelation != null) {
-							refRelation.addAnnotation(sAnno);
-						} else {
-							throw new PepperModuleException(this,
-									"No element with xml-id:" + paulaElementId + " was found.");
 						}
 					}
 				}
+				sAnno = null;
+			} else {
+				sAnno.setValue(URI.createFileURI(file.getAbsolutePath()));
+			}
+		} else {
+			sAnno.setValue(featVal);
+		}
+		return (sAnno);
+	}
+
+	/**
+	 * names of features in lower case, whose values can refer to files or
+	 * null for all features, see
+	 * {@link PAULAImporterProperties#getFileFeatureNames()}
+	 **/
+	private Set<String> fileFeatureNames = null;
+	private boolean isFileFeatureNamesRead = false;
+
+	/**
+	 * @return true, if the value of the passed feature can refer to a file
+	 */
+	private boolean isFileFeature(String featName) {
+		if (!isFileFeatureNamesRead) {
+			fileFeatureNames = (getProperties() == null) ? null : getProps().getFileFeatureNames();
+			isFileFeatureNamesRead = true;
+		}
+		return ((fileFeatureNames == null) || ((featName != null) && (fileFeatureNames.contains(featName
+				.toLowerCase()))));
+	}
+
+	/**
+	 * Names of the files in a directory on disk or in an archive.
+	 */
+	private static class DirectoryListing {
+		public Set<String> names = new HashSet<String>();
+		/** case folded names, see {@link PAULAElementKey#foldCase()} **/
+		public Set<String> foldedNames = new HashSet<String>();
+	}
+
+	/** already listed directories, corresponding to the directory **/
+	private Map<File, DirectoryListing> directoryListings = null;
+
+	/**
+	 * Checks whether the passed file exists on disk or in an archive, see
+	 * {@link PAULAArchive#exists(File)}. Instead of probing each file, the
+	 * directory of the file is listed once per document. A file, whose name
+	 * is listed, exists and a file, whose name is not listed even ignoring
+	 * the case, does not exist. Only a file, whose name differs from a listed
+	 * name in case, is probed, since that depends on the file system.
+	 * 
+	 * @return true, if the file exists
+	 */
+	private boolean fileExists(File file) {
+		File directory = file.getParentFile();
+		if (directory == null) {
+			return (PAULAArchive.exists(file));
+		}
+		DirectoryListing listing = directoryListings.get(directory);
+		if (listing == null) {
+			listing = new DirectoryListing();
+			File[] files = PAULAArchive.listFiles(directory);
+			if (files != null) {
+				for (File child : files) {
+					listing.names.add(child.getName());
+					listing.foldedNames.add(PAULAElementKey.foldCase(child.getName()));
+				}
+			}
+			directoryListings.put(directory, listing);
+		}
+		if (listing.names.contains(file.getName())) {
+			return (true);
+		}
+		if (!listing.foldedNames.contains(PAULAElementKey.foldCase(file.getName()))) {
+			return (false);
+		}
+		return (PAULAArchive.exists(file));
+	}
+
+	/**
+	 * Looks up the nodes and relations of the passed paula-elements in the
+	 * document graph. Elements missing in the paula-files are skipped with a
+	 * warning.
+	 * 
+	 * @return the nodes and relations in order of the passed ids
+	 */
+	private List<SAnnotationContainer> getAnnotatableElements(File paulaFile,
+			Collection<PAULAElementKey> paulaElementIds) {
+		List<SAnnotationContainer> retVal = new ArrayList<SAnnotationContainer>(paulaElementIds.size());
+		for (PAULAElementKey paulaElementId : paulaElementIds) {
+			if (paulaElementId == null) {
+				throw new PepperModuleException(this, "No element with xml-id:" + paulaElementId + " was found.");
+			}
+			String sElementName = elementNamingTable.get(paulaElementId);
+			if (sElementName == null) {
+				logger.warn(
+						"[PAULAImporter] An element was reffered by an annotation, which does not exist in paula file. The missing element is '"
+								+ paulaElementId + "' and it was refferd in file'" + paulaFile.getAbsolutePath()
+								+ "'.");
+			} else {
+				SNode refElement = getDocument().getDocumentGraph().getNode(sElementName);
+				if (refElement != null) {
+					retVal.add(refElement);
+				} else {
+					SRelation refRelation = getDocument().getDocumentGraph().getRelation(sElementName);
+					if (refRelation != null) {
+						retVal.add(refRelation);
+					} else {
+						throw new PepperModuleException(this,
+								"No element with xml-id:" + paulaElementId + " was found.");
+					}
+				}
+			}
+		}
+		return (retVal);
+	}
+
+	/**
+	 * Adds the passed annotation to all passed nodes and relations.
+	 */
+	private void addSAnnotation(SAnnotation sAnno, List<SAnnotationContainer> annotatableElements,
+			XPointer featHref) {
+		for (SAnnotationContainer refElement : annotatableElements) {
+			if (refElement instanceof SNode) {
+				try {
+					refElement.addAnnotation(sAnno);
+				} catch (Exception e) {
+					logger.warn("[PAULAImporter] Exception in paula file: " + this.getResourceURI().toFileString()
+							+ " at element: " + featHref + ". Original message is: " + e.getMessage());
+				}
+			} else {
+				refElement.addAnnotation(sAnno);
 			}
 		}
 	}
@@ -805,66 +1189,121 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 	 * @throws Exception
 	 */
 	public void paulaRELConnector(File paulaFile, String paulaId, String paulaType, String xmlBase, String relId,
-			String srcHref, String dstHref) {
+			XPointer srcPointer, XPointer dstPointer) {
+		paulaRELConnector(paulaFile, paulaId, paulaType, xmlBase, Collections.singletonList(relId),
+				Collections.singletonList(srcPointer), Collections.singletonList(dstPointer));
+	}
+
+	/**
+	 * Recieves all rels of a relList from PAULARelReader and maps them to
+	 * Salt. Same as calling
+	 * {@link #paulaRELConnector(File, String, String, String, String, XPointer, XPointer)}
+	 * for each rel, but the hrefs of all rels are resolved at once, see
+	 * {@link #getPAULAElementIds(String, List)}.
+	 * 
+	 * @param relIds
+	 *            ids of the rels
+	 * @param srcPointers
+	 *            sources of the rels, corresponding to relIds
+	 * @param dstPointers
+	 *            destinations of the rels, corresponding to relIds
+	 */
+	public void paulaRELConnector(File paulaFile, String paulaId, String paulaType, String xmlBase,
+			List<String> relIds, List<XPointer> srcPointers, List<XPointer> dstPointers) {
+		// positions of the rels, which can be created
+		List<Integer> validRels = new ArrayList<Integer>(relIds.size());
+		// source and destination of each valid rel
+		List<XPointer> pointers = new ArrayList<XPointer>(2 * relIds.size());
+		for (int i = 0; i < relIds.size(); i++) {
+			if (isValidRel(paulaFile, relIds.get(i), srcPointers.get(i), dstPointers.get(i))) {
+				validRels.add(i);
+				pointers.add(srcPointers.get(i));
+				pointers.add(dstPointers.get(i));
+			}
+		}
+		if (validRels.isEmpty()) {
+			return;
+		}
+		List<Collection<PAULAElementKey>> paulaElementIdsList = this.getPAULAElementIds(xmlBase, pointers);
+		for (int i = 0; i < validRels.size(); i++) {
+			mapRel(paulaFile, paulaType, relIds.get(validRels.get(i)), paulaElementIdsList.get(2 * i),
+					paulaElementIdsList.get(2 * i + 1));
+		}
+	}
+
+	/**
+	 * Checks that source and destination of the rel are set and differ, logs
+	 * a warning otherwise.
+	 */
+	private boolean isValidRel(File paulaFile, String relId, XPointer srcPointer, XPointer dstPointer) {
+		String srcHref = srcPointer.getHref();
+		String dstHref = dstPointer.getHref();
 		if (((srcHref == null) || (srcHref.isEmpty())) || ((dstHref == null) || (dstHref.isEmpty()))
 				|| ((srcHref.equalsIgnoreCase("empty") || (dstHref.equalsIgnoreCase("empty"))))) {
 
 			logger.warn("[PAULAImporter] Cannot create pointing relation of file (" + paulaFile.getName()
 					+ "), because source or destination is empty (see element '" + relId + "').");
-		} else {
-			if (srcHref.equalsIgnoreCase(dstHref))
-				logger.warn("[PAULAImporter] Cannot create the pointing relation '" + srcHref + "' to '" + dstHref
-						+ "' in document '" + getDocument().getId()
-						+ "', because it is a cycle. The cycle was found in file (" + paulaFile.getName() + ").");
-			else {
-				Collection<String> paulaSrcElementIds = this.getPAULAElementIds(xmlBase, srcHref);
-				Collection<String> paulaDstElementIds = this.getPAULAElementIds(xmlBase, dstHref);
-				if ((paulaSrcElementIds == null) || (paulaSrcElementIds.size() == 0))
-					throw new PepperModuleException(this,
-							"The source of pointing relation in file: " + paulaFile.getName() + " is not set.");
-				if ((paulaDstElementIds == null) || (paulaDstElementIds.size() == 0))
-					throw new PepperModuleException(this,
-							"The destination of pointing relation in file: " + paulaFile.getName() + " is not set.");
-				if (elementNamingTable == null)
-					throw new PepperModuleException(this,
-							"The map elementNamingTable was not initialized, this might be a bug.");
-				// if there are more than one sources or destinations create
-				// cross product
-				for (String paulaSrcElementId : paulaSrcElementIds) {
-					for (String paulaDstElementId : paulaDstElementIds) {
-						String saltSrcName = elementNamingTable.get(paulaSrcElementId);
-						String saltDstName = elementNamingTable.get(paulaDstElementId);
-						if ((saltSrcName == null) || (saltSrcName.isEmpty())) {
-							logger.warn("[PAULAImporter] The requested source of relation (xml-id: " + paulaSrcElementId
-									+ ") of file '" + paulaFile.getName() + "' does not exist.");
-							return;
-						}
-						SPointingRelation pRel = SaltFactory.createSPointingRelation();
-						// SDominanceRelation pRel=
-						// SaltFactory.createSDominanceRelation();
-						if ((saltDstName == null) || (saltDstName.isEmpty())) {
-							logger.warn("[PAULAImporter] The requested destination of relation (xml-id: "
-									+ paulaDstElementId + ") of file '" + paulaFile.getName() + "' does not exist.");
-							return;
-						}
-						pRel.setName(relId);
-						pRel.setType(paulaType);
-						pRel.setSource((SStructuredNode) getDocument().getDocumentGraph().getNode(saltSrcName));
-						pRel.setTarget((SStructuredNode) getDocument().getDocumentGraph().getNode(saltDstName));
-						getDocument().getDocumentGraph().addRelation(pRel);
-						// adding sSpanRel to layer
-						String sLayerName = this.extractNSFromPAULAFile(paulaFile);
-						attachSRelation2SLayer(pRel, sLayerName);
-						// adding sSpanRel to layer
+			return (false);
+		}
+		if (srcHref.equalsIgnoreCase(dstHref)) {
+			logger.warn("[PAULAImporter] Cannot create the pointing relation '" + srcHref + "' to '" + dstHref
+					+ "' in document '" + getDocument().getId()
+					+ "', because it is a cycle. The cycle was found in file (" + paulaFile.getName() + ").");
+			return (false);
+		}
+		return (true);
+	}
 
-						// write SPointingRelation in elementNamingTable, to map
-						// it with its paula id
-						String uniqueName = paulaFile.getName() + KW_NAME_SEP + relId;
-						elementNamingTable.put(uniqueName, pRel.getIdentifier().getId());
-						// write SPointingRelation in elementNamingTable, to map
-						// it with its paula id
-					}
+	/**
+	 * Creates a pointing relation for each pair of the referred sources and
+	 * destinations.
+	 */
+	private void mapRel(File paulaFile, String paulaType, String relId,
+			Collection<PAULAElementKey> paulaSrcElementIds, Collection<PAULAElementKey> paulaDstElementIds) {
+		if ((paulaSrcElementIds == null) || (paulaSrcElementIds.size() == 0))
+			throw new PepperModuleException(this,
+					"The source of pointing relation in file: " + paulaFile.getName() + " is not set.");
+		if ((paulaDstElementIds == null) || (paulaDstElementIds.size() == 0))
+			throw new PepperModuleException(this,
+					"The destination of pointing relation in file: " + paulaFile.getName() + " is not set.");
+		if (elementNamingTable == null)
+			throw new PepperModuleException(this,
+					"The map elementNamingTable was not initialized, this might be a bug.");
+		// if there are more than one sources or destinations create
+		// cross product
+		for (PAULAElementKey paulaSrcElementId : paulaSrcElementIds) {
+			for (PAULAElementKey paulaDstElementId : paulaDstElementIds) {
+				String saltSrcName = elementNamingTable.get(paulaSrcElementId);
+				String saltDstName = elementNamingTable.get(paulaDstElementId);
+				if ((saltSrcName == null) || (saltSrcName.isEmpty())) {
+					logger.warn("[PAULAImporter] The requested source of relation (xml-id: " + paulaSrcElementId
+							+ ") of file '" + paulaFile.getName() + "' does not exist.");
+					return;
 				}
+				SPointingRelation pRel = SaltFactory.createSPointingRelation();
+				// SDominanceRelation pRel=
+				// SaltFactory.createSDominanceRelation();
+				if ((saltDstName == null) || (saltDstName.isEmpty())) {
+					logger.warn("[PAULAImporter] The requested destination of relation (xml-id: "
+							+ paulaDstElementId + ") of file '" + paulaFile.getName() + "' does not exist.");
+					return;
+				}
+				pRel.setName(relId);
+				pRel.setType(paulaType);
+				pRel.setSource((SStructuredNode) getDocument().getDocumentGraph().getNode(saltSrcName));
+				pRel.setTarget((SStructuredNode) getDocument().getDocumentGraph().getNode(saltDstName));
+				getDocument().getDocumentGraph().addRelation(pRel);
+				// adding sSpanRel to layer
+				String sLayerName = this.extractNSFromPAULAFile(paulaFile);
+				attachSRelation2SLayer(pRel, sLayerName);
+				// adding sSpanRel to layer
+
+				// write SPointingRelation in elementNamingTable, to map
+				// it with its paula id
+				PAULAElementKey uniqueName = createElementKey(paulaFile.getName(), relId);
+				elementNamingTable.put(uniqueName, pRel.getIdentifier().getId());
+				// write SPointingRelation in elementNamingTable, to map
+				// it with its paula id
 			}
 		}
 	}
@@ -911,13 +1350,13 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 	 * can be stored after reading all elements.
 	 */
 	private static class DominanceRelationContainer {
-		public String paulaId = null;
+		public PAULAElementKey paulaId = null;
 		public SDominanceRelation relation = null;
 		public String xmlBase = null;
-		public String href = null;
+		public XPointer href = null;
 	}
 
-	private Hashtable<File, List<DominanceRelationContainer>> dominanceRelationContainers = null;
+	private Map<File, List<DominanceRelationContainer>> dominanceRelationContainers = null;
 
 	/**
 	 * Recieves data from PAULAStrcutReader and maps them to Salt. T
@@ -929,10 +1368,10 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 	 * @throws Exception
 	 */
 	public void paulaSTRUCTConnector(File paulaFile, String paulaId, String paulaType, String xmlBase, String structID,
-			String relID, String relHref, String relType) {
+			String relID, XPointer relHref, String relType) {
 		// create unique name for element
-		String uniqueNameStruct = paulaFile.getName() + KW_NAME_SEP + structID;
-		String uniqueNameRel = paulaFile.getName() + KW_NAME_SEP + relID;
+		PAULAElementKey uniqueNameStruct = createElementKey(paulaFile.getName(), structID);
+		PAULAElementKey uniqueNameRel = createElementKey(paulaFile.getName(), relID);
 		// compute xml-base if given is empty
 		if ((xmlBase == null) || (xmlBase.isEmpty())) {
 			// if xml-base is empty, than set xml-base to current processed
@@ -941,12 +1380,8 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 		}
 
 		// create entry in element order table (file: elements)
-		if (elementOrderTable.get(paulaFile.getName()) == null) {
-			Collection<String> orderedElementSlot = new ArrayList<String>();
-			elementOrderTable.put(paulaFile.getName(), orderedElementSlot);
-		}
 		// check if struct is already inserted
-		Collection<String> orderedElementSlot = elementOrderTable.get(paulaFile.getName());
+		PAULAElementOrder orderedElementSlot = getElementOrderSlot(paulaFile);
 		if (!orderedElementSlot.contains(uniqueNameStruct)) {
 			orderedElementSlot.add(uniqueNameStruct);
 		}
@@ -982,7 +1417,7 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 
 		// creating new container list
 		if (dominanceRelationContainers == null)
-			dominanceRelationContainers = new Hashtable<File, List<DominanceRelationContainer>>();
+			dominanceRelationContainers = new HashMap<File, List<DominanceRelationContainer>>();
 
 		List<DominanceRelationContainer> domRelSlot = null;
 		domRelSlot = dominanceRelationContainers.get(paulaFile);
@@ -1009,26 +1444,62 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 		if (paulaReader instanceof PAULAStructReader) {
 			// if PAULAReader is PAULAStructReader storing dominance relations
 			// in graph
-			if (dominanceRelationContainers != null) {
-				for (DominanceRelationContainer domCon : dominanceRelationContainers.get(paulaFile)) {
-					Collection<String> refPAULAElementIds = this.getPAULAElementIds(domCon.xmlBase, domCon.href);
-					for (String refPAULAId : refPAULAElementIds) {
+			// only the relations of this file, struct files referring other
+			// struct files are read nested
+			List<DominanceRelationContainer> domRelSlot = (dominanceRelationContainers == null) ? null
+					: dominanceRelationContainers.remove(paulaFile);
+			if (domRelSlot != null) {
+				// resolve the hrefs of all relations of the file at once, one
+				// list per xml-base, so that the element order of each
+				// referred file is looked up once per xml-base and not once
+				// per relation, see getPAULAElementIds(String, List)
+				Map<String, List<Integer>> positionsByXmlBase = new LinkedHashMap<String, List<Integer>>();
+				for (int i = 0; i < domRelSlot.size(); i++) {
+					List<Integer> positions = positionsByXmlBase.get(domRelSlot.get(i).xmlBase);
+					if (positions == null) {
+						positions = new ArrayList<Integer>();
+						positionsByXmlBase.put(domRelSlot.get(i).xmlBase, positions);
+					}
+					positions.add(i);
+				}
+				List<Collection<PAULAElementKey>> refPAULAElementIdsList = new ArrayList<Collection<PAULAElementKey>>(
+						Collections.<Collection<PAULAElementKey>> nCopies(domRelSlot.size(), null));
+				for (Map.Entry<String, List<Integer>> entry : positionsByXmlBase.entrySet()) {
+					List<XPointer> hrefs = new ArrayList<XPointer>(entry.getValue().size());
+					for (Integer position : entry.getValue()) {
+						hrefs.add(domRelSlot.get(position).href);
+					}
+					List<Collection<PAULAElementKey>> refPAULAElementIds = getPAULAElementIds(entry.getKey(), hrefs);
+					for (int i = 0; i < hrefs.size(); i++) {
+						refPAULAElementIdsList.set(entry.getValue().get(i), refPAULAElementIds.get(i));
+					}
+				}
+				SDocumentGraph documentGraph = getDocument().getDocumentGraph();
+				// all relations of the file belong to the same layer
+				String sLayerName = this.extractNSFromPAULAFile(paulaFile);
+				SLayer sLayer = null;
+				for (int i = 0; i < domRelSlot.size(); i++) {
+					DominanceRelationContainer domCon = domRelSlot.get(i);
+					for (PAULAElementKey refPAULAId : refPAULAElementIdsList.get(i)) {
 						String sNodeName = elementNamingTable.get(refPAULAId);
 						if (sNodeName == null) {
 							throw new PepperModuleException(this,
 									"An element is referred, which was not already read. The reffered element is '"
 											+ refPAULAId + "' and it was reffered in file '" + paulaFile + "'.");
 						}
-						SNode dstNode = getDocument().getDocumentGraph().getNode(sNodeName);
+						SNode dstNode = documentGraph.getNode(sNodeName);
 						if (dstNode == null) {
 							throw new PepperModuleException(this,
 									"No paula element with name: " + refPAULAId + " was found.");
 						}
 						domCon.relation.setTarget((SStructuredNode) dstNode);
-						getDocument().getDocumentGraph().addRelation(domCon.relation);
+						documentGraph.addRelation(domCon.relation);
 						// adding sSpanRel to layer
-						String sLayerName = this.extractNSFromPAULAFile(paulaFile);
-						attachSRelation2SLayer(domCon.relation, sLayerName);
+						if (sLayer == null) {
+							sLayer = attachSRelation2SLayer(domCon.relation, sLayerName);
+						} else {
+							domCon.relation.addLayer(sLayer);
+						}
 						// adding sSpanRel to layer
 						// create entry in naming table for struct
 						if (elementNamingTable.get(domCon.paulaId) == null) {
@@ -1036,7 +1507,6 @@ public class PAULA2SaltMapper extends PepperMapperImpl {
 						}
 					}
 				}
-				dominanceRelationContainers = null;
 			}
 		} // if PAULAReader is PAULAStructReader
 	}
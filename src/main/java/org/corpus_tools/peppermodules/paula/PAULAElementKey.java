@@ -0,0 +1,124 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula;
+
+/**
+ * Identifies a paula-element by the name of its paula-file and its id, which
+ * is unique in the file. A key without id identifies the paula-file itself,
+ * like a text file. <br/>
+ * Keys replace the former unique names 'file#id', they are created from the
+ * file name and the id as they are without copying characters. The file names
+ * are shared by all keys of a document, see
+ * {@link PAULA2SaltMapper#createElementKey(String, String)}.
+ */
+public final class PAULAElementKey {
+	/** Seperator between file and id in {@link #toString()} **/
+	private static final String KW_NAME_SEP = "#";
+
+	private final String file;
+	private final String id;
+	private final int hash;
+
+	PAULAElementKey(String file, String id) {
+		this.file = file;
+		this.id = id;
+		this.hash = 31 * ((file == null) ? 0 : file.hashCode()) + ((id == null) ? 0 : id.hashCode());
+	}
+
+	/**
+	 * @return name of the paula-file containing the element
+	 */
+	public String getFile() {
+		return file;
+	}
+
+	/**
+	 * @return id of the element or null, if the key identifies the paula-file
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Returns a key, which is equal to the case folded key of every key equal
+	 * to this one ignoring the case, see {@link String#equalsIgnoreCase(String)}.
+	 * 
+	 * @return the case folded key or this key, if it is already case folded
+	 */
+	public PAULAElementKey foldCase() {
+		String foldedFile = foldCase(file);
+		String foldedId = foldCase(id);
+		if ((foldedFile == file) && (foldedId == id)) {
+			return this;
+		}
+		return new PAULAElementKey(foldedFile, foldedId);
+	}
+
+	/**
+	 * Folds each character the same way as
+	 * {@link String#equalsIgnoreCase(String)} compares them.
+	 * 
+	 * @return the folded string or the passed string, if nothing is to fold
+	 */
+	static String foldCase(String value) {
+		if (value == null) {
+			return null;
+		}
+		char[] chars = null;
+		for (int i = 0; i < value.length(); i++) {
+			char chr = value.charAt(i);
+			char folded = Character.toLowerCase(Character.toUpperCase(chr));
+			if (folded != chr) {
+				if (chars == null) {
+					chars = value.toCharArray();
+				}
+				chars[i] = folded;
+			}
+		}
+		return (chars == null) ? value : new String(chars);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof PAULAElementKey)) {
+			return false;
+		}
+		PAULAElementKey other = (PAULAElementKey) obj;
+		return (hash == other.hash) && (equals(id, other.id)) && (equals(file, other.file));
+	}
+
+	private static boolean equals(String a, String b) {
+		return (a == b) || ((a != null) && (a.equals(b)));
+	}
+
+	/**
+	 * @return the unique name 'file#id' or 'file' for a paula-file
+	 */
+	@Override
+	public String toString() {
+		return (id == null) ? file : file + KW_NAME_SEP + id;
+	}
+}
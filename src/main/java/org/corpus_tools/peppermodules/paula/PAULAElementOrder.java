@@ -0,0 +1,132 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contains the paula-elements of one paula-file in the order in which they
+ * have been read. Besides the ordered list, the position of each element is
+ * indexed, so that a range of elements given by its left and right border is
+ * found by two lookups instead of iterating over all elements. <br/>
+ * The borders of a range are compared ignoring the case as before, so the
+ * first element equal to a border ignoring the case is taken, even if an
+ * element with exactly the same case follows. <br/>
+ * Each element is held by the list and, if its id contains no upper case
+ * letters, also by the index. The index is used to check whether an element
+ * is contained, too.
+ */
+class PAULAElementOrder {
+	/** the elements in reading order **/
+	private final List<PAULAElementKey> elements;
+	/**
+	 * position of the first occurrence of each element, corresponding to the
+	 * case folded element, see {@link PAULAElementKey#foldCase()}
+	 **/
+	private final Map<PAULAElementKey, Integer> positions;
+
+	public PAULAElementOrder() {
+		this(10);
+	}
+
+	/**
+	 * @param expectedSize
+	 *            expected number of elements
+	 */
+	public PAULAElementOrder(int expectedSize) {
+		elements = new ArrayList<PAULAElementKey>(expectedSize);
+		positions = new HashMap<PAULAElementKey, Integer>(PAULA2SaltMapper.getHashCapacity(expectedSize));
+	}
+
+	/**
+	 * Appends the element at the end of the order.
+	 */
+	public void add(PAULAElementKey element) {
+		PAULAElementKey foldedElement = element.foldCase();
+		if (!positions.containsKey(foldedElement)) {
+			positions.put(foldedElement, elements.size());
+		}
+		elements.add(element);
+	}
+
+	/**
+	 * @return true, if the element has already been added, the case is
+	 *         compared exactly
+	 */
+	public boolean contains(PAULAElementKey element) {
+		int position = indexOf(element);
+		if (position < 0) {
+			return false;
+		}
+		if (elements.get(position).equals(element)) {
+			return true;
+		}
+		// the first element equal ignoring the case differs in case, only
+		// then the following elements are searched
+		return elements.subList(position + 1, elements.size()).contains(element);
+	}
+
+	/**
+	 * @return number of added elements
+	 */
+	public int size() {
+		return elements.size();
+	}
+
+	/**
+	 * Adds all elements starting with the left element and ending with the
+	 * right one (inclusive) to the passed collection. Both elements are
+	 * compared ignoring the case. When the right element is not contained, the
+	 * range ends with the last element. When the left element is not
+	 * contained or the right element precedes the left one, nothing is added.
+	 *
+	 * @param leftElement
+	 *            first element of the range
+	 * @param rightElement
+	 *            last element of the range
+	 * @param range
+	 *            collection to which the elements of the range are added
+	 */
+	public void getRange(PAULAElementKey leftElement, PAULAElementKey rightElement,
+			Collection<PAULAElementKey> range) {
+		int left = indexOf(leftElement);
+		if (left < 0) {
+			return;
+		}
+		int right = indexOf(rightElement);
+		if (right < 0) {
+			right = elements.size() - 1;
+		}
+		if (right >= left) {
+			range.addAll(elements.subList(left, right + 1));
+		}
+	}
+
+	/**
+	 * @return position of the first occurrence of the element ignoring the
+	 *         case or -1
+	 */
+	private int indexOf(PAULAElementKey element) {
+		Integer position = positions.get(element.foldCase());
+		return (position == null) ? -1 : position;
+	}
+}
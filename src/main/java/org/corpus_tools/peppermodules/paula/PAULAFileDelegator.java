@@ -17,28 +17,42 @@
  */
 package org.corpus_tools.peppermodules.paula;
 
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLStreamException;
 
 import org.corpus_tools.pepper.modules.exceptions.PepperModuleException;
+import org.corpus_tools.peppermodules.paula.readers.PAULAEventRecorder;
 import org.corpus_tools.peppermodules.paula.readers.PAULAReader;
+import org.corpus_tools.peppermodules.paula.readers.PAULAStAXReader;
+import org.corpus_tools.peppermodules.paula.util.PAULAArchive;
+import org.corpus_tools.peppermodules.paula.util.PAULADTDResolver;
+import org.corpus_tools.peppermodules.paula.util.SAXParserPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.SAXNotRecognizedException;
-import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.SAXParseException;
 import org.xml.sax.XMLReader;
+import org.xml.sax.ext.DefaultHandler2;
 
 /**
  * Takes controll for reading of all paula-files. Makes sure, that file refered
@@ -107,15 +121,20 @@ public class PAULAFileDelegator {
 
 	// =================================== end: mapper for callback
 	/**
-	 * list of already processed paula files. Makes sure that a file will not
-	 * processed two times.
+	 * normalized paths of already processed paula files. Makes sure that a
+	 * file will not processed two times.
 	 */
-	private List<File> processedPAULAFiles = null;
+	private Set<String> processedPAULAFiles = null;
 	/**
-	 * not already processed paula-files. Makes sure, that all paula-files will
-	 * be processed.
+	 * normalized paths of not already processed paula-files. Makes sure, that
+	 * all paula-files will be processed.
 	 */
-	private List<File> notProcessedPAULAFiles = null;
+	private Set<String> notProcessedPAULAFiles = null;
+	/**
+	 * work list of paula-files to be read, files which have been read in the
+	 * meantime are skipped when taken from the queue.
+	 */
+	private Deque<File> paulaFileQueue = null;
 
 	/**
 	 * Starts initial reading of all given PAULA-files.
@@ -127,22 +146,160 @@ public class PAULAFileDelegator {
 		if (this.getPaulaPath() == null)
 			throw new PepperModuleException(getMapper(),
 					"Cannot start reading paula-files, because paula-path is not set. Please set paula-path first.");
-		this.processedPAULAFiles = new ArrayList<File>();
-		this.notProcessedPAULAFiles = new ArrayList<File>();
+		this.processedPAULAFiles = new HashSet<String>();
+		this.notProcessedPAULAFiles = new HashSet<String>();
+		this.paulaFileQueue = new ArrayDeque<File>(this.getPaulaFiles().size());
 
 		{// add all given files to list of not processed paula-files
-			for (File paulaFile : this.getPaulaFiles())
-				this.notProcessedPAULAFiles.add(paulaFile);
+			for (File paulaFile : this.getPaulaFiles()) {
+				this.notProcessedPAULAFiles.add(this.getPathKey(paulaFile));
+				this.paulaFileQueue.add(paulaFile);
+			}
 		} // add all given files to list of not processed paula-files
-		while (this.notProcessedPAULAFiles.size() > 0) {// do until all
-														// paula-files have been
-														// processed
-			File paulaFile = this.notProcessedPAULAFiles.get(0);
+		if (this.getParsePlan() == null) {
+			this.setParsePlan(PAULAParsePlan.create(this.getPaulaPath(), this.getPaulaFiles()));
+		}
+		if (this.getMapper() != null) {
+			this.getMapper().presizeTables(this.getParsePlan());
+		}
+		if ((this.getNumOfThreads() > 1) && (this.getPaulaFiles().size() > 1)) {
+			this.startPaulaFilesInParallel();
+		} else {
+			for (File paulaFile : this.getParsePlan().getPaulaFiles()) {
+				this.startPaulaFile(paulaFile);
+			}
+		}
+		// do until all paula-files have been processed
+		File paulaFile = null;
+		while ((paulaFile = this.paulaFileQueue.poll()) != null) {
 			this.startPaulaFile(paulaFile);
-		} // do until all paula-files have been processed
+		}
+		logger.debug("[PAULAImporter] SAX parser pool: {}", SAXParserPool.getStatistics());
+	}
+
+	// ========================== start: parse plan
+	/**
+	 * The order in which the paula-files are read.
+	 */
+	private PAULAParsePlan parsePlan = null;
+
+	/**
+	 * Sets the order in which the paula-files are read. If no plan is set, it
+	 * is computed when calling {@link #startPaulaFiles()}.
+	 * 
+	 * @param parsePlan
+	 *            the parsePlan to set
+	 */
+	public void setParsePlan(PAULAParsePlan parsePlan) {
+		this.parsePlan = parsePlan;
+	}
+
+	/**
+	 * @return the order in which the paula-files are read
+	 */
+	public PAULAParsePlan getParsePlan() {
+		return parsePlan;
+	}
+
+	// ========================== end: parse plan
+	// ========================== start: parallel reading
+	/**
+	 * Number of threads used for parsing independent paula-files of one
+	 * document concurrently. A value of 1 means all files are read one after
+	 * another.
+	 */
+	private int numOfThreads = 1;
+
+	/**
+	 * @param numOfThreads
+	 *            the number of threads used for parsing paula-files
+	 *            concurrently
+	 */
+	public void setNumOfThreads(int numOfThreads) {
+		this.numOfThreads = numOfThreads;
+	}
+
+	/**
+	 * @return the number of threads used for parsing paula-files concurrently
+	 */
+	public int getNumOfThreads() {
+		return numOfThreads;
+	}
+
+	/**
+	 * Files which have been or currently are parsed by a worker thread,
+	 * corresponding to the recorded SAX events of the file.
+	 */
+	private Map<File, Future<PAULAEventRecorder>> preParsedPAULAFiles = null;
+
+	/**
+	 * Reads all paula-files level by level of the parse plan. All files of one
+	 * level are parsed concurrently into {@link PAULAEventRecorder}s. Since the
+	 * mapper is not thread safe, the recorded events are passed to the mapper
+	 * in the calling thread. Files referred by a xlink:href and not already
+	 * read are read on demand as in sequential mode.
+	 */
+	private void startPaulaFilesInParallel() {
+		this.preParsedPAULAFiles = new HashMap<File, Future<PAULAEventRecorder>>();
+		ExecutorService executor = Executors.newFixedThreadPool(this.getNumOfThreads());
+		try {
+			for (List<File> levelSlot : this.getParsePlan().getLevels()) {
+				for (final File paulaFile : levelSlot) {
+					if (this.notProcessedPAULAFiles.contains(this.getPathKey(paulaFile))) {
+						preParsedPAULAFiles.put(paulaFile.getAbsoluteFile(),
+								executor.submit(new Callable<PAULAEventRecorder>() {
+									@Override
+									public PAULAEventRecorder call() throws Exception {
+										PAULAEventRecorder recorder = new PAULAEventRecorder();
+										parse(paulaFile, recorder);
+										return recorder;
+									}
+								}));
+					}
+				}
+				for (File paulaFile : levelSlot) {
+					this.startPaulaFile(paulaFile);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+			this.preParsedPAULAFiles = null;
+		}
+	}
+
+	// ========================== end: parallel reading
+	// ========================== start: parser engine
+	/**
+	 * The engines, which can be used for reading paula-files.
+	 */
+	public enum PARSER_ENGINE {
+		/** push parsing with a {@link javax.xml.parsers.SAXParser} **/
+		SAX,
+		/** pull parsing with a {@link javax.xml.stream.XMLStreamReader} **/
+		STAX
+	}
+
+	/**
+	 * The engine used for reading paula-files.
+	 */
+	private PARSER_ENGINE parserEngine = PARSER_ENGINE.SAX;
+
+	/**
+	 * @param parserEngine
+	 *            the engine used for reading paula-files
+	 */
+	public void setParserEngine(PARSER_ENGINE parserEngine) {
+		this.parserEngine = parserEngine;
+	}
+
+	/**
+	 * @return the engine used for reading paula-files
+	 */
+	public PARSER_ENGINE getParserEngine() {
+		return parserEngine;
 	}
 
-	private static volatile SAXParserFactory factory = SAXParserFactory.newInstance();
+	// ========================== end: parser engine
 
 	/**
 	 * Starts reading of given paula-file. If a file is given which already has
@@ -155,84 +312,73 @@ public class PAULAFileDelegator {
 		if (paulaFile == null)
 			throw new PepperModuleException(getMapper(),
 					"Cannot start reading paula-file, because given file is empty.");
-		if (!paulaFile.isAbsolute()) {
-			paulaFile = new File(this.getPaulaPath().getAbsolutePath() + "/" + paulaFile.toString());
-		}
+		paulaFile = this.resolvePaulaFile(paulaFile);
 		if (paulaFile.isDirectory())
 			throw new PepperModuleException(getMapper(), "Cannot read the given paula-file ('"
 					+ paulaFile.getAbsolutePath() + "'), because it is a directory.");
 
-		Boolean isAlreadyProcessed = false;
-		for (File paulaFile2 : this.processedPAULAFiles) {
-			if (paulaFile.getAbsolutePath().equals(paulaFile2.getAbsolutePath()))
-				isAlreadyProcessed = true;
-		}
-		if (isAlreadyProcessed) {// paula-file still has been processed
+		String pathKey = this.getPathKey(paulaFile);
+		// the file to be read, which might be the compressed twin
+		File sourceFile = PAULAArchive.getSourceFile(paulaFile);
+		// the content of a compressed file is mapped under its name without
+		// '.gz', since other files refer to it by this name
+		paulaFile = PAULAArchive.getUncompressedFile(paulaFile);
+		if (this.processedPAULAFiles.contains(pathKey)) {// paula-file still has been processed
 		} // paula-file still has been processed
-		else {// paula-file has not yet been processed
+		else if (!PAULAArchive.exists(sourceFile)) {
+			// a referred file, which does not exist (for instance
+			// xml:base="meta"), is skipped and the referring file is read
+			// anyway. Formerly, the failing referring file was parsed a
+			// second time, when the missing file already counted as read.
+			logger.warn("[PAULAImporter] Cannot read the paula-file '{}', because it does not exist. ",
+					paulaFile.getAbsolutePath());
+			this.notProcessedPAULAFiles.remove(pathKey);
+			this.processedPAULAFiles.add(pathKey);
+		} else {// paula-file has not yet been processed
 			logger.debug("[PAULAImporter] Importing paula-file: {}.", paulaFile.getAbsolutePath());
-			this.notProcessedPAULAFiles.remove(paulaFile);
-			this.processedPAULAFiles.add(paulaFile);
+			this.notProcessedPAULAFiles.remove(pathKey);
+			this.processedPAULAFiles.add(pathKey);
 			PAULAReader paulaReader = new PAULAReader();
 			paulaReader.setPaulaFileDelegator(this);
 
-			SAXParser parser;
-			XMLReader xmlReader;
-
 			// configure mapper
 			paulaReader.setMapper(this.getMapper());
 			paulaReader.setPaulaFile(paulaFile);
 
-			try {
-				parser = factory.newSAXParser();
-				xmlReader = parser.getXMLReader();
-
-				// create content handler
-				xmlReader.setContentHandler(paulaReader);
-				// set lexical handler for validating against dtds
-				xmlReader.setProperty("http://xml.org/sax/properties/lexical-handler", paulaReader);
-				xmlReader.setDTDHandler(paulaReader);
-
-				try {
-					// start reading file
-					InputStream inputStream = new FileInputStream(paulaFile.getAbsolutePath());
-					Reader reader = new InputStreamReader(inputStream, "UTF-8");
-
-					InputSource is = new InputSource(reader);
-					// important in case of dtd's are used, the path where to
-					// find them must be given
-					is.setSystemId(paulaFile.getAbsolutePath());
-					is.setEncoding("UTF-8");
-					xmlReader.parse(is);
-				} catch (SAXException e) {
+			PAULAEventRecorder recorder = null;
+			if (this.preParsedPAULAFiles != null) {
+				Future<PAULAEventRecorder> future = this.preParsedPAULAFiles.remove(sourceFile.getAbsoluteFile());
+				if (future != null) {
 					try {
-						parser = factory.newSAXParser();
-						xmlReader = parser.getXMLReader();
-						xmlReader.setContentHandler(paulaReader);
-						// set lexical handler for validating against dtds
-						xmlReader.setProperty("http://xml.org/sax/properties/lexical-handler", paulaReader);
-						xmlReader.setDTDHandler(paulaReader);
-						xmlReader.parse(paulaFile.getAbsolutePath());
-					} catch (Exception e1) {
+						recorder = future.get();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
 						throw new PepperModuleException(getMapper(),
-								"Cannot load paula file from resource '" + paulaFile.getAbsolutePath() + "'.", e1);
+								"Interrupted while reading file '" + paulaFile.getAbsolutePath() + "'. ", e);
+					} catch (ExecutionException e) {
+						if (e.getCause() instanceof RuntimeException) {
+							throw (RuntimeException) e.getCause();
+						}
+						throw new PepperModuleException(getMapper(),
+								"Cannot read file '" + paulaFile.getAbsolutePath() + "'. ", e.getCause());
+					}
+				}
+			}
+			if (recorder != null) {
+				try {
+					recorder.replay(paulaReader);
+				} catch (SAXException e) {
+					if (e.getException() instanceof RuntimeException) {
+						// a problem occured during the mapping
+						throw (RuntimeException) e.getException();
 					}
+					throw new PepperModuleException(getMapper(), "Cannot read file '" + paulaFile.getAbsolutePath()
+							+ "'. Nested SAX Exception is " + e.getLocalizedMessage(), e);
 				}
-			} catch (SAXNotRecognizedException e) {
-				throw new PepperModuleException(getMapper(), "Cannot read file '" + paulaFile.getAbsolutePath()
-						+ "'. Nested SAXNotSupported Exception is " + e.getLocalizedMessage());
-			} catch (SAXNotSupportedException e) {
-				throw new PepperModuleException(getMapper(), "Cannot read file '" + paulaFile.getAbsolutePath()
-						+ "'. Nested SAXNotSupported Exception is " + e.getLocalizedMessage());
-			} catch (ParserConfigurationException e) {
-				throw new PepperModuleException(getMapper(), "Cannot read file '" + paulaFile.getAbsolutePath()
-						+ "'. Nested ParserConfiguration Exception is " + e.getLocalizedMessage());
-			} catch (SAXException e) {
-				throw new PepperModuleException(getMapper(), "Cannot read file '" + paulaFile.getAbsolutePath()
-						+ "'. Nested SAX Exception is " + e.getLocalizedMessage());
-			} catch (IOException e) {
-				throw new PepperModuleException(getMapper(), "Cannot read file '" + paulaFile.getAbsolutePath()
-						+ "'. Nested IO Exception is " + e.getLocalizedMessage());
+			} else if (PARSER_ENGINE.STAX.equals(this.getParserEngine())) {
+				readWithStAX(sourceFile, paulaReader, this);
+			} else {
+				parse(sourceFile, paulaReader);
 			}
 
 			// adding progress
@@ -242,4 +388,137 @@ public class PAULAFileDelegator {
 					((System.nanoTime() - timestamp)) / 1000000);
 		} // paula-file has not yet been processed
 	}
+
+	/**
+	 * Returns the absolute path of the passed file, relative paths are
+	 * resolved against the paula-path.
+	 */
+	private File resolvePaulaFile(File paulaFile) {
+		if (!paulaFile.isAbsolute()) {
+			paulaFile = new File(this.getPaulaPath().getAbsolutePath() + "/" + paulaFile.toString());
+		}
+		return paulaFile;
+	}
+
+	/**
+	 * Returns whether the given paula-file already has been read or currently
+	 * is read.
+	 * 
+	 * @param paulaFile
+	 *            the file to check, relative paths are resolved against the
+	 *            paula-path
+	 * @return true, if the file has been read
+	 */
+	public boolean isPaulaFileProcessed(File paulaFile) {
+		return this.processedPAULAFiles.contains(this.getPathKey(paulaFile));
+	}
+
+	/**
+	 * Returns the normalized absolute path of the passed file, which
+	 * identifies the file in the sets of processed and not processed files.
+	 * For instance 'doc1/./doc1.tok.xml', 'doc1/doc1.tok.xml' and
+	 * 'doc1/doc1.tok.xml.gz' result in the same key.
+	 */
+	private String getPathKey(File paulaFile) {
+		return PAULAArchive.getUncompressedFile(this.resolvePaulaFile(paulaFile)).toPath().normalize().toString();
+	}
+
+	/**
+	 * Reads the given paula-file with the StAX engine. If a delegator is
+	 * given, reading is paused whenever the file refers to a file via xml:base,
+	 * which has not been read yet. The referred file is read and afterwards
+	 * this file is resumed.
+	 * 
+	 * @param paulaFile
+	 *            file to be read
+	 * @param handler
+	 *            the handler to receive the events
+	 * @param paulaFileDelegator
+	 *            the delegator to read referred files, or null to never pause
+	 */
+	private void readWithStAX(File paulaFile, DefaultHandler2 handler, PAULAFileDelegator paulaFileDelegator) {
+		try (PAULAStAXReader staxReader = new PAULAStAXReader(paulaFile, handler, paulaFileDelegator)) {
+			File requiredFile = staxReader.read();
+			while (requiredFile != null) {
+				this.startPaulaFile(requiredFile);
+				requiredFile = staxReader.read();
+			}
+		} catch (XMLStreamException e) {
+			String position = "";
+			if (e.getLocation() != null) {
+				position = " (line " + e.getLocation().getLineNumber() + ", column "
+						+ e.getLocation().getColumnNumber() + ")";
+			}
+			throw new PepperModuleException(getMapper(), "Cannot read file '" + paulaFile.getAbsolutePath() + "'"
+					+ position + ". Nested XMLStream Exception is " + e.getLocalizedMessage(), e);
+		} catch (SAXException e) {
+			if (e.getException() instanceof RuntimeException) {
+				// a problem occured during the mapping
+				throw (RuntimeException) e.getException();
+			}
+			throw new PepperModuleException(getMapper(), "Cannot read file '" + paulaFile.getAbsolutePath()
+					+ "'. Nested SAX Exception is " + e.getLocalizedMessage(), e);
+		} catch (IOException e) {
+			throw new PepperModuleException(getMapper(), "Cannot read file '" + paulaFile.getAbsolutePath()
+					+ "'. Nested IO Exception is " + e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * Parses the given paula-file and passes all SAX events to the given
+	 * handler. The file is passed to the parser as byte stream, so that the
+	 * encoding is detected by the parser from the byte order mark and the
+	 * encoding declaration. If neither is given, UTF-8 is used. Each file is
+	 * parsed exactly once, the handler never receives an event twice.
+	 * 
+	 * @param paulaFile
+	 *            file to be parsed
+	 * @param handler
+	 *            the handler to receive the SAX events
+	 */
+	private void parse(File paulaFile, DefaultHandler2 handler) {
+		if (PARSER_ENGINE.STAX.equals(this.getParserEngine())) {
+			readWithStAX(paulaFile, handler, null);
+			return;
+		}
+		SAXParser parser = null;
+		try (InputStream inputStream = new BufferedInputStream(PAULAArchive.openInputStream(paulaFile))) {
+			parser = SAXParserPool.borrow();
+			XMLReader xmlReader = parser.getXMLReader();
+
+			// create content handler
+			xmlReader.setContentHandler(handler);
+			// set lexical handler for validating against dtds
+			xmlReader.setProperty("http://xml.org/sax/properties/lexical-handler", handler);
+			xmlReader.setDTDHandler(handler);
+			// the dtds are only used to detect the file type, they are
+			// resolved from memory
+			xmlReader.setEntityResolver(PAULADTDResolver.getInstance());
+
+			InputSource is = new InputSource(inputStream);
+			// important in case of dtd's are used, the path where to
+			// find them must be given
+			is.setSystemId(paulaFile.toURI().toString());
+			xmlReader.parse(is);
+		} catch (SAXParseException e) {
+			throw new PepperModuleException(getMapper(),
+					"Cannot read file '" + paulaFile.getAbsolutePath() + "', because it is not well-formed (line "
+							+ e.getLineNumber() + ", column " + e.getColumnNumber() + "): " + e.getLocalizedMessage(),
+					e);
+		} catch (SAXException e) {
+			if (e.getException() instanceof RuntimeException) {
+				// a problem occured during the mapping
+				throw (RuntimeException) e.getException();
+			}
+			throw new PepperModuleException(getMapper(), "Cannot read file '" + paulaFile.getAbsolutePath()
+					+ "'. Nested SAX Exception is " + e.getLocalizedMessage(), e);
+		} catch (ParserConfigurationException e) {
+			throw new PepperModuleException(getMapper(), "Cannot read file '" + paulaFile.getAbsolutePath()
+					+ "'. Nested ParserConfiguration Exception is " + e.getLocalizedMessage(), e);
+		} catch (IOException e) {
+			throw new PepperModuleException(getMapper(), "Cannot read file '" + paulaFile.getAbsolutePath()
+					+ "'. Nested IO Exception is " + e.getLocalizedMessage(), e);
+		}
+		SAXParserPool.release(parser);
+	}
 }
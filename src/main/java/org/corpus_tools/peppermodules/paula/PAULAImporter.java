@@ -17,15 +17,26 @@
  */
 package org.corpus_tools.peppermodules.paula;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.regex.Matcher;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.corpus_tools.pepper.core.SelfTestDesc;
 import org.corpus_tools.pepper.impl.PepperImporterImpl;
 import org.corpus_tools.pepper.modules.PepperImporter;
 import org.corpus_tools.pepper.modules.PepperMapper;
+import org.corpus_tools.pepper.modules.exceptions.PepperModuleException;
+import org.corpus_tools.peppermodules.paula.util.PAULAArchive;
 import org.corpus_tools.salt.common.SCorpus;
+import org.corpus_tools.salt.common.SCorpusGraph;
+import org.corpus_tools.salt.common.SDocument;
 import org.corpus_tools.salt.graph.Identifier;
 import org.eclipse.emf.common.util.URI;
 import org.osgi.service.component.annotations.Component;
@@ -68,20 +79,238 @@ public class PAULAImporter extends PepperImporterImpl implements PepperImporter
 				.withExpectedCorpusPath(selfTestLocation.appendSegment("expected")).build();
 	}
 
+	/** detects the xml declaration of a paula-file **/
+	private static final Pattern PATTERN_XML_DECLARATION = Pattern.compile("<?xml version=(\"|')1[.]0(\"|')");
+	/** detects the root element of a paula-file **/
+	private static final Pattern PATTERN_PAULA_ELEMENT = Pattern.compile("<paula version=");
+	/** maximal number of files sampled from a corpus path **/
+	private static final int NUM_OF_SAMPLED_FILES = 20;
+	/** number of bytes sampled from the beginning of each file **/
+	private static final int NUM_OF_SAMPLED_BYTES = 4096;
+	/** maximal number of corpus paths, whose detection result is cached **/
+	private static final int MAX_CACHED_RESULTS = 256;
+
+	/**
+	 * results of {@link #isImportable(URI)} corresponding to the absolute
+	 * corpus path, so that detection is not repeated by this importer for an
+	 * unchanged corpus path
+	 **/
+	private final Map<String, ImportableResult> importableCache = Collections
+			.synchronizedMap(new LinkedHashMap<String, ImportableResult>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, ImportableResult> eldest) {
+					return size() > MAX_CACHED_RESULTS;
+				}
+			});
+
+	/**
+	 * A cached result of {@link PAULAImporter#isImportable(URI)} together with
+	 * the modification times of the files it depends on: the corpus path, the
+	 * listed folders and the sampled files. A changed, added or removed file
+	 * changes the modification time of the file or of its folder, which
+	 * invalidates the result.
+	 */
+	private static class ImportableResult {
+		private final Double value;
+		private final List<File> files;
+		private final long[] lastModified;
+
+		private ImportableResult(Double value, List<File> files) {
+			this.value = value;
+			this.files = files;
+			lastModified = new long[files.size()];
+			for (int i = 0; i < lastModified.length; i++) {
+				lastModified[i] = files.get(i).lastModified();
+			}
+		}
+
+		/** Returns true, if none of the files changed since detection. **/
+		private boolean isUpToDate() {
+			for (int i = 0; i < lastModified.length; i++) {
+				if (files.get(i).lastModified() != lastModified[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Samples the beginning of up to {@value #NUM_OF_SAMPLED_FILES} files with
+	 * a paula ending in the corpus path, which could be a folder, a ZIP archive
+	 * or a single file. Returns 1.0, as soon as one of them starts like a
+	 * paula-file. The result is cached by this importer as long as neither the
+	 * corpus path nor one of the listed folders or sampled files is modified.
+	 */
 	@Override
 	public Double isImportable(URI corpusPath) {
-		Double retValue = 0.0;
-		for (String content : sampleFileContent(corpusPath, PAULA_FILE_ENDINGS)) {
-			Pattern pattern = Pattern.compile("<?xml version=(\"|')1[.]0(\"|')");
-			Matcher matcher = pattern.matcher(content);
-			Pattern pattern2 = Pattern.compile("<paula version=");
-			Matcher matcher2 = pattern2.matcher(content);
-			if (matcher.find() && matcher2.find()) {
-				retValue = 1.0;
-				break;
+		File corpusFile = new File(corpusPath.toFileString()).getAbsoluteFile();
+		String key = corpusFile.getPath();
+		ImportableResult result = importableCache.get(key);
+		if ((result == null) || (!result.isUpToDate())) {
+			List<File> sampledFiles = new ArrayList<File>();
+			sampledFiles.add(corpusFile);
+			PAULAArchive archive = PAULAArchive.acquire(corpusFile);
+			try {
+				result = new ImportableResult(sampleContent(corpusFile, sampledFiles) ? 1.0 : 0.0, sampledFiles);
+			} finally {
+				PAULAArchive.release(archive);
+			}
+			importableCache.put(key, result);
+		}
+		return result.value;
+	}
+
+	/**
+	 * Walks the passed corpus path breadth-first and reads the beginning of
+	 * files with a paula ending. The listed folders and the sampled files are
+	 * added to the passed list.
+	 *
+	 * @return true, if one of the sampled files is a paula-file
+	 */
+	private boolean sampleContent(File corpusFile, List<File> sampledFiles) {
+		List<File> folders = new ArrayList<File>();
+		if (PAULAArchive.isDirectory(corpusFile)) {
+			folders.add(corpusFile);
+		} else if ((corpusFile.isFile()) && (hasPaulaEnding(corpusFile))) {
+			return isPaulaContent(readBeginning(corpusFile));
+		}
+		int numOfSampledFiles = 0;
+		for (int i = 0; (i < folders.size()) && (numOfSampledFiles < NUM_OF_SAMPLED_FILES); i++) {
+			File[] files = PAULAArchive.listFiles(folders.get(i));
+			if (i > 0) {
+				sampledFiles.add(folders.get(i));
+			}
+			if (files == null) {
+				continue;
+			}
+			for (File file : files) {
+				if (PAULAArchive.isDirectory(file)) {
+					folders.add(file);
+				} else if ((numOfSampledFiles < NUM_OF_SAMPLED_FILES) && (hasPaulaEnding(file))) {
+					numOfSampledFiles++;
+					sampledFiles.add(file);
+					if (isPaulaContent(readBeginning(file))) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the first {@value #NUM_OF_SAMPLED_BYTES} bytes of the passed file.
+	 *
+	 * @return the read content or null, if the file could not be read
+	 */
+	private String readBeginning(File file) {
+		try (InputStream in = PAULAArchive.openInputStream(file)) {
+			byte[] buffer = new byte[NUM_OF_SAMPLED_BYTES];
+			int length = 0;
+			int read = 0;
+			while ((length < buffer.length) && ((read = in.read(buffer, length, buffer.length - length)) != -1)) {
+				length += read;
+			}
+			return new String(buffer, 0, length, "UTF-8");
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private boolean isPaulaContent(String content) {
+		return (content != null) && (PATTERN_XML_DECLARATION.matcher(content).find())
+				&& (PATTERN_PAULA_ELEMENT.matcher(content).find());
+	}
+
+	/**
+	 * Returns true, if the passed file has one of the paula endings,
+	 * optionally followed by '.gz'.
+	 */
+	private boolean hasPaulaEnding(File file) {
+		String name = PAULAArchive.getUncompressedFile(file).getName().toLowerCase();
+		for (String ending : PAULA_FILE_ENDINGS) {
+			if (name.endsWith("." + ending)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Imports the corpus structure from a folder or from a ZIP archive. In an
+	 * archive, folders containing further folders are mapped to corpora and
+	 * folders containing only files are mapped to documents, the same way as
+	 * for a folder on disk. The root corpus is named after the archive.
+	 */
+	@Override
+	public void importCorpusStructure(SCorpusGraph corpusGraph) throws PepperModuleException {
+		File corpusFile = null;
+		if ((getCorpusDesc() != null) && (getCorpusDesc().getCorpusPath() != null)) {
+			corpusFile = new File(getCorpusDesc().getCorpusPath().toFileString());
+		}
+		// keep the archive open until the end of the import
+		PAULAArchive archive = PAULAArchive.acquire(corpusFile);
+		if (archive != null) {
+			acquiredArchives.add(archive);
+		}
+		if (!PAULAArchive.isArchive(corpusFile)) {
+			super.importCorpusStructure(corpusGraph);
+			return;
+		}
+		setCorpusGraph(corpusGraph);
+		if (archive == null) {
+			throw new PepperModuleException(this, "Cannot import corpus structure, because the archive '"
+					+ corpusFile.getAbsolutePath() + "' cannot be opened.");
+		}
+		String corpusName = corpusFile.getName().substring(0,
+				corpusFile.getName().length() - PAULAArchive.ENDING_ZIP.length() - 1);
+		if ((getCorpusGraph().getName() == null) || (getCorpusGraph().getName().isEmpty())) {
+			getCorpusGraph().setName(corpusName);
+		}
+		importArchiveStructureRec(corpusFile, corpusName, null);
+	}
+
+	private void importArchiveStructureRec(File folder, String name, SCorpus parent) {
+		File[] files = PAULAArchive.listFiles(folder);
+		List<File> subFolders = new ArrayList<File>();
+		for (File file : files) {
+			if (PAULAArchive.isDirectory(file)) {
+				subFolders.add(file);
+			}
+		}
+		URI resource = URI.createFileURI(folder.getAbsolutePath());
+		if ((parent != null) && (subFolders.isEmpty())) {
+			SDocument document = getCorpusGraph().createDocument(parent, name);
+			getIdentifier2ResourceTable().put(document.getIdentifier(), resource);
+		} else {
+			SCorpus corpus = getCorpusGraph().createCorpus(parent, name);
+			getIdentifier2ResourceTable().put(corpus.getIdentifier(), resource);
+			for (File subFolder : subFolders) {
+				importArchiveStructureRec(subFolder, subFolder.getName(), corpus);
+			}
+		}
+	}
+
+	/** archives acquired by this importer for reading the corpus **/
+	private final List<PAULAArchive> acquiredArchives = new ArrayList<PAULAArchive>();
+
+	/**
+	 * Releases the archives acquired by this importer, an archive is closed,
+	 * when no other importer reads it.
+	 */
+	@Override
+	public void end() throws PepperModuleException {
+		try {
+			super.end();
+		} finally {
+			for (PAULAArchive archive : acquiredArchives) {
+				PAULAArchive.release(archive);
 			}
+			acquiredArchives.clear();
 		}
-		return retValue;
 	}
 
 	/**
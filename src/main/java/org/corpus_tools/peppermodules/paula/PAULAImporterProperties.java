@@ -17,6 +17,9 @@
  */
 package org.corpus_tools.peppermodules.paula;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.corpus_tools.pepper.modules.PepperModuleProperties;
 import org.corpus_tools.pepper.modules.PepperModuleProperty;
 
@@ -28,6 +31,13 @@ public class PAULAImporterProperties extends PepperModuleProperties {
 	public static final String PROP_EMPTY_NAMESPACE = "emptyNamespace";
 	public static final String PROP_ANNO_NAMESPACE_FROM_FILE = "annoNamespaceFromFile";
 	public static final String PROP_TOK_NAMESPACE_FROM_FILE = "tokNamespaceFromFile";
+	public static final String PROP_NUM_OF_FILE_THREADS = "numOfFileThreads";
+	public static final String PROP_PARSER_ENGINE = "parserEngine";
+	public static final String PROP_XPOINTER_CACHE_SIZE = "xPointerCacheSize";
+	public static final String PROP_FILE_FEATURE_NAMES = "fileFeatureNames";
+
+	/** default number of resolved hrefs cached per document **/
+	public static final int DEFAULT_XPOINTER_CACHE_SIZE = 10000;
 
 	public PAULAImporterProperties() {
 		this.addProperty(new PepperModuleProperty<String>(PROP_EMPTY_NAMESPACE, String.class,
@@ -44,6 +54,38 @@ public class PAULAImporterProperties extends PepperModuleProperties {
 						"If 'true' inherit the token namespace from the namespace part of the file name. Default is 'false'.\"")
 				.withDefaultValue(false)
 				.build());
+
+		addProperty(PepperModuleProperty.create()
+				.withName(PROP_NUM_OF_FILE_THREADS)
+				.withType(Integer.class)
+				.withDescription(
+						"The number of threads used to parse independent paula files of one document concurrently. The mapping itself is still done in one thread per document. Default is '1', which means all files are read one after another.")
+				.withDefaultValue(1)
+				.build());
+
+		addProperty(PepperModuleProperty.create()
+				.withName(PROP_PARSER_ENGINE)
+				.withType(String.class)
+				.withDescription(
+						"The engine used to read paula files, either 'sax' for a SAX parser or 'stax' for a StAX pull parser. Default is 'sax'.")
+				.withDefaultValue("sax")
+				.build());
+
+		addProperty(PepperModuleProperty.create()
+				.withName(PROP_XPOINTER_CACHE_SIZE)
+				.withType(Integer.class)
+				.withDescription(
+						"The maximal number of resolved hrefs cached per document, so that an href referred by several elements (for instance by several annotations) is resolved only once. '0' disables the cache. Default is '"
+								+ DEFAULT_XPOINTER_CACHE_SIZE + "'.")
+				.withDefaultValue(DEFAULT_XPOINTER_CACHE_SIZE)
+				.build());
+
+		addProperty(PepperModuleProperty.create()
+				.withName(PROP_FILE_FEATURE_NAMES)
+				.withType(String.class)
+				.withDescription(
+						"A comma separated list of feature names (for instance 'audio'), whose values are checked for being a reference to a file. Values of other features are always mapped as they are. When the property is not set, the values of all features are checked.")
+				.build());
 	}
 
 	public String getEmptyNamespace() {
@@ -65,4 +107,50 @@ public class PAULAImporterProperties extends PepperModuleProperties {
 					.getProperty(PROP_TOK_NAMESPACE_FROM_FILE);
 			return prop.getValue();
 	}
+
+	public int getNumOfFileThreads() {
+		PepperModuleProperty<Integer> prop = (PepperModuleProperty<Integer>) this
+				.getProperty(PROP_NUM_OF_FILE_THREADS);
+		if ((prop.getValue() == null) || (prop.getValue() < 1)) {
+			return 1;
+		}
+		return prop.getValue();
+	}
+
+	public PAULAFileDelegator.PARSER_ENGINE getParserEngine() {
+		PepperModuleProperty<String> prop = (PepperModuleProperty<String>) this.getProperty(PROP_PARSER_ENGINE);
+		if ((prop.getValue() != null) && ("stax".equalsIgnoreCase(prop.getValue().trim()))) {
+			return PAULAFileDelegator.PARSER_ENGINE.STAX;
+		}
+		return PAULAFileDelegator.PARSER_ENGINE.SAX;
+	}
+
+	public int getXPointerCacheSize() {
+		PepperModuleProperty<Integer> prop = (PepperModuleProperty<Integer>) this
+				.getProperty(PROP_XPOINTER_CACHE_SIZE);
+		if (prop.getValue() == null) {
+			return DEFAULT_XPOINTER_CACHE_SIZE;
+		}
+		return prop.getValue();
+	}
+
+	/**
+	 * @return the names of features, whose values can refer to files, in
+	 *         lower case or null, if the values of all features can refer to
+	 *         files
+	 */
+	public Set<String> getFileFeatureNames() {
+		PepperModuleProperty<String> prop = (PepperModuleProperty<String>) this
+				.getProperty(PROP_FILE_FEATURE_NAMES);
+		if ((prop.getValue() == null) || (prop.getValue().trim().isEmpty())) {
+			return null;
+		}
+		Set<String> retVal = new HashSet<String>();
+		for (String name : prop.getValue().split(",")) {
+			if (!name.trim().isEmpty()) {
+				retVal.add(name.trim().toLowerCase());
+			}
+		}
+		return retVal;
+	}
 }
@@ -0,0 +1,311 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.xml.parsers.SAXParser;
+
+import org.corpus_tools.peppermodules.paula.readers.PAULAReader;
+import org.corpus_tools.peppermodules.paula.util.PAULAArchive;
+import org.corpus_tools.peppermodules.paula.util.SAXParserPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.ext.DefaultHandler2;
+
+/**
+ * A parse plan contains all paula-files of a document or corpus in the order
+ * in which they have to be read. The plan is computed by a pre-scan, which
+ * only reads the DOCTYPE, the header and the attributes of the list element of
+ * each file and stops parsing afterwards. Files referred by xml:base are
+ * placed before the referring files, so that no file needs to be read while
+ * another file is read. A plan is independent of the mapping and can be
+ * reused.
+ */
+public class PAULAParsePlan {
+	private static final Logger logger = LoggerFactory.getLogger(PAULAParsePlan.class);
+
+	/**
+	 * Contains the information of the pre-scan of a single paula-file.
+	 */
+	public static class Entry {
+		private File paulaFile = null;
+		private String dtd = null;
+		private String paulaId = null;
+		private String xmlBase = null;
+		private String paulaType = null;
+		private Entry baseEntry = null;
+		private int level = -1;
+
+		private Entry(File paulaFile) {
+			this.paulaFile = paulaFile;
+		}
+
+		/** @return the scanned paula-file **/
+		public File getPaulaFile() {
+			return paulaFile;
+		}
+
+		/** @return the name of the dtd, e.g. 'paula_mark.dtd' **/
+		public String getDtd() {
+			return dtd;
+		}
+
+		/** @return the value of header/@paula_id **/
+		public String getPaulaId() {
+			return paulaId;
+		}
+
+		/** @return the value of the list element's xml:base attribute **/
+		public String getXmlBase() {
+			return xmlBase;
+		}
+
+		/** @return the value of the list element's type attribute **/
+		public String getPaulaType() {
+			return paulaType;
+		}
+
+		/**
+		 * @return the entry of the file referred by xml:base or null, if the
+		 *         file is not part of the plan
+		 */
+		public Entry getBaseEntry() {
+			return baseEntry;
+		}
+
+		/**
+		 * @return the level in the dependency graph, all files of one level
+		 *         can be read independently of each other
+		 */
+		public int getLevel() {
+			return level;
+		}
+
+		@Override
+		public String toString() {
+			return paulaFile.getName() + "(" + dtd + ", level " + level + ")";
+		}
+	}
+
+	/** all entries in the order they have to be read **/
+	private List<Entry> entries = null;
+
+	private PAULAParsePlan(List<Entry> entries) {
+		this.entries = Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * @return all entries in the order in which they have to be read
+	 */
+	public List<Entry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * @return all paula-files in the order in which they have to be read
+	 */
+	public List<File> getPaulaFiles() {
+		List<File> retVal = new ArrayList<File>(entries.size());
+		for (Entry entry : entries) {
+			retVal.add(entry.getPaulaFile());
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns the paula-files grouped by their level in the dependency graph.
+	 * Files of one level do not depend on each other via xml:base and can be
+	 * read concurrently.
+	 *
+	 * @return a list of levels, each containing the files in reading order
+	 */
+	public List<List<File>> getLevels() {
+		Map<Integer, List<File>> levels = new TreeMap<Integer, List<File>>();
+		for (Entry entry : entries) {
+			List<File> levelSlot = levels.get(entry.getLevel());
+			if (levelSlot == null) {
+				levelSlot = new ArrayList<File>();
+				levels.put(entry.getLevel(), levelSlot);
+			}
+			levelSlot.add(entry.getPaulaFile());
+		}
+		return new ArrayList<List<File>>(levels.values());
+	}
+
+	/**
+	 * Pre-scans all passed paula-files and computes the order in which they
+	 * have to be read.
+	 *
+	 * @param paulaPath
+	 *            the folder containing the paula-files, used to resolve
+	 *            xml:base values
+	 * @param paulaFiles
+	 *            the files to be scanned
+	 * @return the computed parse plan
+	 */
+	public static PAULAParsePlan create(File paulaPath, List<File> paulaFiles) {
+		Map<File, Entry> entries = new LinkedHashMap<File, Entry>();
+		for (File paulaFile : paulaFiles) {
+			if (!paulaFile.isAbsolute()) {
+				paulaFile = new File(paulaPath.getAbsolutePath() + "/" + paulaFile.toString());
+			}
+			entries.put(paulaFile, scan(paulaFile));
+		}
+		for (Entry entry : entries.values()) {
+			if ((entry.getXmlBase() != null) && (!entry.getXmlBase().isEmpty())) {
+				File baseFile = new File(paulaPath.getAbsolutePath() + "/" + entry.getXmlBase());
+				entry.baseEntry = entries.get(baseFile);
+				if (entry.baseEntry == null) {
+					// the base file might be compressed
+					entry.baseEntry = entries.get(PAULAArchive.getSourceFile(baseFile));
+				}
+			}
+		}
+		List<Entry> orderedEntries = new ArrayList<Entry>(entries.values());
+		for (Entry entry : orderedEntries) {
+			computeLevel(entry, new HashSet<Entry>());
+		}
+		// the sort is stable, so files of the same level keep the given order
+		Collections.sort(orderedEntries, new Comparator<Entry>() {
+			@Override
+			public int compare(Entry e1, Entry e2) {
+				return Integer.compare(e1.getLevel(), e2.getLevel());
+			}
+		});
+		return new PAULAParsePlan(orderedEntries);
+	}
+
+	/**
+	 * Returns the minimal level of a file by its kind. This makes sure, that
+	 * for instance struct files, which refer to tokens without an xml:base, are
+	 * read after the tokens.
+	 */
+	private static int getMinLevel(Entry entry) {
+		if (PAULAReader.PAULA_DTD_TEXT.equalsIgnoreCase(entry.getDtd())) {
+			return 0;
+		} else if (PAULAReader.PAULA_DTD_MARK.equalsIgnoreCase(entry.getDtd())) {
+			if ("tok".equalsIgnoreCase(entry.getPaulaType())) {
+				return 1;
+			}
+			return 2;
+		} else if ((PAULAReader.PAULA_DTD_STRUCT.equalsIgnoreCase(entry.getDtd()))
+				|| (PAULAReader.PAULA_DTD_REL.equalsIgnoreCase(entry.getDtd()))
+				|| (PAULAReader.PAULA_DTD_FEAT.equalsIgnoreCase(entry.getDtd()))
+				|| (PAULAReader.PAULA_DTD_MULTIFEAT.equalsIgnoreCase(entry.getDtd()))) {
+			return 2;
+		}
+		return 0;
+	}
+
+	/**
+	 * Computes the level of the given entry, which is the maximum of its
+	 * minimal level and the level of its base file + 1.
+	 */
+	private static int computeLevel(Entry entry, Set<Entry> visited) {
+		if (entry.level >= 0) {
+			return entry.level;
+		}
+		int level = getMinLevel(entry);
+		if ((entry.getBaseEntry() != null) && (visited.add(entry))) {
+			level = Math.max(level, computeLevel(entry.getBaseEntry(), visited) + 1);
+		} else if (entry.getBaseEntry() != null) {
+			logger.warn("[PAULAImporter] Found a cycle in xml:base references of file '{}'. ",
+					entry.getPaulaFile().getAbsolutePath());
+		}
+		entry.level = level;
+		return level;
+	}
+
+	/**
+	 * Thrown to stop parsing, when all necessary information has been read.
+	 */
+	private static class ScanFinishedException extends SAXException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * Reads the DOCTYPE, the header and the list element of the passed file and
+	 * stops parsing right after the list element.
+	 */
+	private static Entry scan(File paulaFile) {
+		final Entry entry = new Entry(paulaFile);
+		SAXParser parser = null;
+		try (InputStream inputStream = new BufferedInputStream(PAULAArchive.openInputStream(paulaFile))) {
+			parser = SAXParserPool.borrow();
+			XMLReader xmlReader = parser.getXMLReader();
+			DefaultHandler2 handler = new DefaultHandler2() {
+				@Override
+				public void startDTD(String name, String publicId, String systemId) throws SAXException {
+					String dtd = ((publicId != null) && (!publicId.isEmpty())) ? publicId : systemId;
+					if (dtd != null) {
+						String parts[] = dtd.split("/");
+						entry.dtd = parts[parts.length - 1];
+					}
+				}
+
+				@Override
+				public void startElement(String uri, String localName, String qName, Attributes attributes)
+						throws SAXException {
+					if (PAULAXMLDictionary.TAG_HEADER.equalsIgnoreCase(qName)) {
+						for (String att : PAULAXMLDictionary.ATT_HEADER_PAULA_ID) {
+							if (attributes.getValue(att) != null) {
+								entry.paulaId = attributes.getValue(att);
+							}
+						}
+					} else if (qName.endsWith("List")) {
+						entry.xmlBase = attributes.getValue(PAULAXMLDictionary.ATT_BASE);
+						entry.paulaType = attributes.getValue(PAULAXMLDictionary.ATT_TYPE);
+						throw new ScanFinishedException();
+					}
+				}
+			};
+			// the dtd itself is not necessary for the scan
+			xmlReader.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+			xmlReader.setContentHandler(handler);
+			xmlReader.setProperty("http://xml.org/sax/properties/lexical-handler", handler);
+			InputSource is = new InputSource(inputStream);
+			is.setSystemId(paulaFile.toURI().toString());
+			xmlReader.parse(is);
+		} catch (ScanFinishedException e) {
+			// list element was found
+		} catch (Exception e) {
+			// the file will be read later on and the problem will be reported
+			logger.debug("[PAULAImporter] Cannot pre-scan file '{}'. ", paulaFile, e);
+			// the parser might be in an inconsistent state
+			parser = null;
+		}
+		SAXParserPool.release(parser);
+		return entry;
+	}
+}
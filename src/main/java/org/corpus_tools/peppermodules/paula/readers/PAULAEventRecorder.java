@@ -0,0 +1,132 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.readers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.DefaultHandler2;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * Records all SAX events of a paula-file, which are of interest for a
+ * {@link PAULAReader}. The recorded events can be replayed later on to a
+ * {@link PAULAReader}. This makes it possible to parse a paula-file in a
+ * worker thread, while the mapping is done in the mapping thread.
+ */
+public class PAULAEventRecorder extends DefaultHandler2 {
+	/** types of recorded events **/
+	private enum EVENT_TYPE {
+		START_DTD, START_DOCUMENT, END_DOCUMENT, START_ELEMENT, END_ELEMENT, CHARACTERS
+	};
+
+	/**
+	 * A single recorded SAX event.
+	 */
+	private static class Event {
+		private EVENT_TYPE type = null;
+		private String[] names = null;
+		private Attributes attributes = null;
+		private char[] text = null;
+
+		private Event(EVENT_TYPE type, String... names) {
+			this.type = type;
+			this.names = names;
+		}
+	}
+
+	/** all recorded events in order of occurance **/
+	private List<Event> events = new ArrayList<Event>();
+
+	/**
+	 * Removes all recorded events.
+	 */
+	public void clear() {
+		events.clear();
+	}
+
+	/**
+	 * Replays all recorded events to the passed handler in the order they have
+	 * been recorded.
+	 *
+	 * @param handler
+	 *            the handler to receive the events
+	 */
+	public void replay(DefaultHandler2 handler) throws SAXException {
+		for (Event event : events) {
+			switch (event.type) {
+			case START_DTD:
+				handler.startDTD(event.names[0], event.names[1], event.names[2]);
+				break;
+			case START_DOCUMENT:
+				handler.startDocument();
+				break;
+			case END_DOCUMENT:
+				handler.endDocument();
+				break;
+			case START_ELEMENT:
+				handler.startElement(event.names[0], event.names[1], event.names[2], event.attributes);
+				break;
+			case END_ELEMENT:
+				handler.endElement(event.names[0], event.names[1], event.names[2]);
+				break;
+			case CHARACTERS:
+				handler.characters(event.text, 0, event.text.length);
+				break;
+			}
+		}
+	}
+
+	@Override
+	public void startDTD(String name, String publicId, String systemId) throws SAXException {
+		events.add(new Event(EVENT_TYPE.START_DTD, name, publicId, systemId));
+	}
+
+	@Override
+	public void startDocument() throws SAXException {
+		events.add(new Event(EVENT_TYPE.START_DOCUMENT));
+	}
+
+	@Override
+	public void endDocument() throws SAXException {
+		events.add(new Event(EVENT_TYPE.END_DOCUMENT));
+	}
+
+	@Override
+	public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+		Event event = new Event(EVENT_TYPE.START_ELEMENT, uri, localName, qName);
+		// the parser reuses its attributes object, therefore a copy is needed
+		event.attributes = new AttributesImpl(attributes);
+		events.add(event);
+	}
+
+	@Override
+	public void endElement(String uri, String localName, String qName) throws SAXException {
+		events.add(new Event(EVENT_TYPE.END_ELEMENT, uri, localName, qName));
+	}
+
+	@Override
+	public void characters(char[] ch, int start, int length) throws SAXException {
+		Event event = new Event(EVENT_TYPE.CHARACTERS);
+		event.text = Arrays.copyOfRange(ch, start, start + length);
+		events.add(event);
+	}
+}
@@ -17,6 +17,10 @@
  */
 package org.corpus_tools.peppermodules.paula.readers;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.corpus_tools.peppermodules.paula.util.xPointer.XPointer;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
@@ -36,6 +40,13 @@ public class PAULAFeatReader extends PAULASpecificReader {
 	 * Stores if feats refers to a document or corpus
 	 */
 	private Boolean isMetaFeat = false;
+	/**
+	 * hrefs of the normal feats of the current featList, whose callback is
+	 * delayed until the end of the featList
+	 **/
+	private List<XPointer> featHrefPointers = new ArrayList<XPointer>();
+	/** values of the normal feats, corresponding to {@link #featHrefPointers} **/
+	private List<String> featVals = new ArrayList<String>();
 
 	/**
 	 * @see org.xml.sax.helpers.DefaultHandler#startElement(java.lang.String,
@@ -87,8 +98,10 @@ public class PAULAFeatReader extends PAULASpecificReader {
 			}
 
 			// checking if href contains a new not already read file
-			this.checkForFileReference(featHref);
-			this.checkForFileReference(featTar);
+			XPointer featHrefPointer = new XPointer(featHref);
+			XPointer featTarPointer = new XPointer(featTar);
+			this.checkForFileReference(featHrefPointer);
+			this.checkForFileReference(featTarPointer);
 			// checking if href contains a new not already read file
 
 			if (KW_ANNO_FEAT.equals(this.getPaulaType())) {// file is annofeat,
@@ -104,12 +117,41 @@ public class PAULAFeatReader extends PAULASpecificReader {
 			else if (((featVal == null) || (featVal.isEmpty())) && ((featTar != null) && (!featTar.isEmpty()))) {
 				// callback for mapper for feat misused as rel
 				this.getMapper().paulaRELConnector(this.getPaulaFile(), this.getPaulaID(), this.getPaulaType(),
-						this.getXmlBase(), featID, featHref, featTar);
+						this.getXmlBase(), featID, featHrefPointer, featTarPointer);
 			} // callback for mapper for feat misused as rel
-			else {// callback for mapper for normal feat
-				this.getMapper().paulaFEATConnector(this.getPaulaFile(), this.getPaulaID(), this.getPaulaType(),
-						this.getXmlBase(), featID, featHref, featTar, featVal, featDesc, featExp);
-			} // callback for mapper for normal feat
+			else {// normal feat, callback is delayed until end of featList
+				featHrefPointers.add(featHrefPointer);
+				featVals.add(featVal);
+			} // normal feat, callback is delayed until end of featList
+		}
+	}
+
+	/**
+	 * Calls the mapper for all normal feats of the featList at once.
+	 */
+	@Override
+	public void endElement(String uri, String localName, String qName) throws SAXException {
+		if (this.isTAGorAttribute(qName, TAG_FEAT_FEATLIST)) {
+			flushFeats();
+		}
+	}
+
+	@Override
+	public void endDocument() throws SAXException {
+		flushFeats();
+	}
+
+	/**
+	 * Passes the normal feats of the current featList to the mapper, which
+	 * resolves their hrefs at once.
+	 */
+	private void flushFeats() {
+		if (featHrefPointers.isEmpty()) {
+			return;
 		}
+		this.getMapper().paulaFEATConnector(this.getPaulaFile(), this.getPaulaID(), this.getPaulaType(),
+				this.getXmlBase(), featHrefPointers, featVals);
+		featHrefPointers.clear();
+		featVals.clear();
 	}
 }
@@ -17,6 +17,10 @@
  */
 package org.corpus_tools.peppermodules.paula.readers;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.corpus_tools.peppermodules.paula.util.xPointer.XPointer;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
@@ -25,6 +29,13 @@ import org.xml.sax.SAXException;
  */
 public class PAULAMarkReader extends PAULASpecificReader {
 	private final static String ATT_TOK = "tok";
+	/**
+	 * ids of the marks of the current markList, whose callback is delayed
+	 * until the end of the markList
+	 **/
+	private List<String> markIDs = new ArrayList<String>();
+	/** hrefs of the marks, corresponding to {@link #markIDs} **/
+	private List<XPointer> markPointers = new ArrayList<XPointer>();
 
 	// --------------------------- SAX methods ---------------------------
 
@@ -59,17 +70,47 @@ public class PAULAMarkReader extends PAULASpecificReader {
 			}
 
 			// checking if href contains a new not already read file
-			this.checkForFileReference(markHref);
+			XPointer markPointer = new XPointer(markHref);
+			this.checkForFileReference(markPointer);
 
 			if ((this.getPaulaType() != null) && (this.getPaulaType().equalsIgnoreCase(ATT_TOK))) {
 				// callback to mapper when type is tok
 				this.getMapper().paulaMARK_TOKConnector(this.getPaulaFile(), this.getPaulaID(), this.getPaulaType(),
-						this.getXmlBase(), markID, markHref, markType);
+						this.getXmlBase(), markID, markPointer, markType);
 			} // callback to mapper when type is tok
-			else {// callback to mapper when type is normal mark
-				this.getMapper().paulaMARKConnector(this.getPaulaFile(), this.getPaulaID(), this.getPaulaType(),
-						this.getXmlBase(), markID, markHref, markType);
-			} // callback to mapper when type is normal mark
+			else {// normal mark, callback is delayed until end of markList
+				markIDs.add(markID);
+				markPointers.add(markPointer);
+			} // normal mark, callback is delayed until end of markList
+		}
+	}
+
+	/**
+	 * Calls the mapper for all marks of the markList at once.
+	 */
+	@Override
+	public void endElement(String uri, String localName, String qName) throws SAXException {
+		if (this.isTAGorAttribute(qName, TAG_MARK_MARKLIST)) {
+			flushMarks();
+		}
+	}
+
+	@Override
+	public void endDocument() throws SAXException {
+		flushMarks();
+	}
+
+	/**
+	 * Passes the marks of the current markList to the mapper, which resolves
+	 * their hrefs at once.
+	 */
+	private void flushMarks() {
+		if (markIDs.isEmpty()) {
+			return;
 		}
+		this.getMapper().paulaMARKConnector(this.getPaulaFile(), this.getPaulaID(), this.getPaulaType(),
+				this.getXmlBase(), markIDs, markPointers);
+		markIDs.clear();
+		markPointers.clear();
 	}
 }
@@ -17,6 +17,10 @@
  */
 package org.corpus_tools.peppermodules.paula.readers;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.corpus_tools.peppermodules.paula.util.xPointer.XPointer;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
@@ -38,6 +42,15 @@ public class PAULAMultiFeatReader extends PAULASpecificReader {
 	private String multiFeatID = null;
 	/** multiFeat/@href **/
 	private String multiFeatHref = null;
+	/** multiFeat/@href parsed once for all nested feats **/
+	private XPointer multiFeatPointer = null;
+	/**
+	 * names of the nested feats of the current multiFeat, whose callback is
+	 * delayed until the end of the multiFeat
+	 **/
+	private List<String> featNames = new ArrayList<String>();
+	/** values of the nested feats, corresponding to {@link #featNames} **/
+	private List<String> featVals = new ArrayList<String>();
 
 	/**
 	 * @see org.xml.sax.helpers.DefaultHandler#startElement(java.lang.String,
@@ -67,7 +80,8 @@ public class PAULAMultiFeatReader extends PAULASpecificReader {
 			}
 
 			// checking if href contains a new not already read file
-			this.checkForFileReference(multiFeatHref);
+			multiFeatPointer = new XPointer(multiFeatHref);
+			this.checkForFileReference(multiFeatPointer);
 		} else if (this.isTAGorAttribute(qName, TAG_MULTI_FEAT)) {// FEAT-element
 																	// found
 			String featID = null; // feat.id
@@ -94,10 +108,39 @@ public class PAULAMultiFeatReader extends PAULASpecificReader {
 				this.getMapper().paulaFEAT_METAConnector(this.getPaulaFile(), this.getPaulaID(), featName,
 						this.getXmlBase(), featID, multiFeatHref, featName, featVal, null, null);
 			} // callback for mapper in case of feat means corpus or document
-			else {// callback for mapper for normal feat
-				this.getMapper().paulaFEATConnector(this.getPaulaFile(), this.getPaulaID(), featName, this.getXmlBase(),
-						featID, multiFeatHref, featName, featVal, null, null);
-			} // callback for mapper for normal feat
+			else {// normal feat, callback is delayed until end of multiFeat
+				featNames.add(featName);
+				featVals.add(featVal);
+			} // normal feat, callback is delayed until end of multiFeat
+		}
+	}
+
+	/**
+	 * Calls the mapper for all feats of the multiFeat at once.
+	 */
+	@Override
+	public void endElement(String uri, String localName, String qName) throws SAXException {
+		if (this.isTAGorAttribute(qName, TAG_MULTI_MULTIFEAT)) {
+			flushFeats();
+		}
+	}
+
+	@Override
+	public void endDocument() throws SAXException {
+		flushFeats();
+	}
+
+	/**
+	 * Passes the feats of the current multiFeat to the mapper, which resolves
+	 * the href of the multiFeat once for all of them.
+	 */
+	private void flushFeats() {
+		if (featNames.isEmpty()) {
+			return;
 		}
+		this.getMapper().paulaMULTIFEATConnector(this.getPaulaFile(), this.getPaulaID(), this.getXmlBase(),
+				multiFeatID, multiFeatPointer, featNames, featVals);
+		featNames.clear();
+		featVals.clear();
 	}
 }
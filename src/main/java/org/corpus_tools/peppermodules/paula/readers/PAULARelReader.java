@@ -17,6 +17,10 @@
  */
 package org.corpus_tools.peppermodules.paula.readers;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.corpus_tools.peppermodules.paula.util.xPointer.XPointer;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
@@ -24,6 +28,16 @@ import org.xml.sax.SAXException;
  * This reader reads a paula file which is compatible to paula_rel.dtd.
  */
 public class PAULARelReader extends PAULASpecificReader {
+	/**
+	 * ids of the rels of the current relList, whose callback is delayed until
+	 * the end of the relList
+	 **/
+	private List<String> relIDs = new ArrayList<String>();
+	/** sources of the rels, corresponding to {@link #relIDs} **/
+	private List<XPointer> relHrefPointers = new ArrayList<XPointer>();
+	/** destinations of the rels, corresponding to {@link #relIDs} **/
+	private List<XPointer> relTargetPointers = new ArrayList<XPointer>();
+
 	/**
 	 * @see org.xml.sax.helpers.DefaultHandler#startElement(java.lang.String,
 	 *      java.lang.String, java.lang.String, org.xml.sax.Attributes)
@@ -50,14 +64,48 @@ public class PAULARelReader extends PAULASpecificReader {
 					RELTarget = attributes.getValue(i);
 			}
 
+			XPointer RELHrefPointer = new XPointer(RELHref);
+			XPointer RELTargetPointer = new XPointer(RELTarget);
 			{// checking if href contains a new not already read file
-				this.checkForFileReference(RELHref);
-				this.checkForFileReference(RELTarget);
+				this.checkForFileReference(RELHrefPointer);
+				this.checkForFileReference(RELTargetPointer);
 			} // checking if href contains a new not already read file
 
-			this.getMapper().paulaRELConnector(this.getPaulaFile(), this.getPaulaID(), this.getPaulaType(),
-					this.getXmlBase(), RELID, RELHref, RELTarget);
+			// callback is delayed until end of relList
+			relIDs.add(RELID);
+			relHrefPointers.add(RELHrefPointer);
+			relTargetPointers.add(RELTargetPointer);
+		}
+	}
+
+	/**
+	 * Calls the mapper for all rels of the relList at once.
+	 */
+	@Override
+	public void endElement(String uri, String localName, String qName) throws SAXException {
+		if (this.isTAGorAttribute(qName, TAG_REL_RELLIST)) {
+			flushRels();
+		}
+	}
+
+	@Override
+	public void endDocument() throws SAXException {
+		flushRels();
+	}
+
+	/**
+	 * Passes the rels of the current relList to the mapper, which resolves
+	 * their hrefs at once.
+	 */
+	private void flushRels() {
+		if (relIDs.isEmpty()) {
+			return;
 		}
+		this.getMapper().paulaRELConnector(this.getPaulaFile(), this.getPaulaID(), this.getPaulaType(),
+				this.getXmlBase(), relIDs, relHrefPointers, relTargetPointers);
+		relIDs.clear();
+		relHrefPointers.clear();
+		relTargetPointers.clear();
 	}
 
 }
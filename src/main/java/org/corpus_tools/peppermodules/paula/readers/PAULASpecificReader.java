@@ -22,7 +22,7 @@ import java.io.File;
 import org.corpus_tools.peppermodules.paula.PAULA2SaltMapper;
 import org.corpus_tools.peppermodules.paula.PAULAFileDelegator;
 import org.corpus_tools.peppermodules.paula.PAULAXMLDictionary;
-import org.corpus_tools.peppermodules.paula.util.xPointer.XPtrInterpreter;
+import org.corpus_tools.peppermodules.paula.util.xPointer.XPointer;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.ext.DefaultHandler2;
@@ -199,21 +199,17 @@ public abstract class PAULASpecificReader extends DefaultHandler2 implements PAU
 
 	// =============================== end: paula-file-delegator
 	/**
-	 * Checks the given String (in XPointer-syntax), if it contains a reference
-	 * to another file and initialize to read this file.
+	 * Checks the given XPointer, if it contains a reference to another file
+	 * and initialize to read this file.
 	 * 
-	 * @param xptr
-	 *            - the attribute to check
+	 * @param xPointer
+	 *            - the parsed attribute to check
 	 */
-	protected void checkForFileReference(String xPtr) {
-		if ((xPtr != null) && (!xPtr.isEmpty())) {
-			XPtrInterpreter xPtrInterpreter = new XPtrInterpreter();
-			xPtrInterpreter.setInterpreter(null, xPtr);
-			if ((xPtrInterpreter.getDoc() != null) && (!xPtrInterpreter.getDoc().isEmpty())) {// if
-				File referedFile = new File(xPtrInterpreter.getDoc());
-				this.getPaulaFileDelegator().startPaulaFile(referedFile);
-			} // if xpointer contains a document
-		}
+	protected void checkForFileReference(XPointer xPointer) {
+		if ((xPointer.getDoc() != null) && (!xPointer.getDoc().isEmpty())) {// if
+			File referedFile = new File(xPointer.getDoc());
+			this.getPaulaFileDelegator().startPaulaFile(referedFile);
+		} // if xpointer contains a document
 	}
 
 	// =============================== start: sax-methods
@@ -0,0 +1,388 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.readers;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.corpus_tools.peppermodules.paula.PAULAFileDelegator;
+import org.corpus_tools.peppermodules.paula.PAULAXMLDictionary;
+import org.corpus_tools.peppermodules.paula.util.PAULAArchive;
+import org.corpus_tools.peppermodules.paula.util.PAULADTDResolver;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.DefaultHandler2;
+
+/**
+ * Reads a paula-file with a {@link XMLStreamReader} and passes the pulled
+ * events to a {@link DefaultHandler2}, usually a {@link PAULAReader}. This is
+ * an alternative to parsing with SAX, see
+ * {@link PAULAFileDelegator.PARSER_ENGINE}. <br/>
+ * In contrast to SAX, reading can be paused: If a {@link PAULAFileDelegator}
+ * is given and the xml:base of the list element refers to a file, which has
+ * not been read yet, {@link #read()} returns before the list element is passed
+ * to the handler. The delegator reads the returned file and resumes this one
+ * by calling {@link #read()} again. So no parser is active, while another file
+ * is read.
+ */
+public class PAULAStAXReader implements Closeable {
+	private static final XMLInputFactory factory = createFactory();
+
+	private static XMLInputFactory createFactory() {
+		XMLInputFactory retVal = XMLInputFactory.newInstance();
+		retVal.setProperty(XMLInputFactory.SUPPORT_DTD, true);
+		retVal.setProperty(XMLInputFactory.IS_COALESCING, true);
+		retVal.setXMLResolver(PAULADTDResolver.getInstance());
+		return retVal;
+	}
+
+	private final File paulaFile;
+	private final DefaultHandler2 handler;
+	private final PAULAFileDelegator paulaFileDelegator;
+	private final InputStream inputStream;
+	private final XMLStreamReader xmlReader;
+	private final Attributes attributes;
+	/** the document type declaration read from the beginning of the file **/
+	private final String doctype;
+	/** true, if the current event has not been passed to the handler **/
+	private boolean paused = false;
+	/** true, if the current event is the first one of the stream **/
+	private boolean started = false;
+
+	/**
+	 * Opens the passed file for reading.
+	 *
+	 * @param paulaFile
+	 *            the file to be read
+	 * @param handler
+	 *            the handler to receive the events
+	 * @param paulaFileDelegator
+	 *            delegator to check whether a file has been read, if null,
+	 *            reading is never paused
+	 */
+	public PAULAStAXReader(File paulaFile, DefaultHandler2 handler, PAULAFileDelegator paulaFileDelegator)
+			throws IOException, XMLStreamException {
+		this.paulaFile = paulaFile;
+		this.handler = handler;
+		this.paulaFileDelegator = paulaFileDelegator;
+		this.inputStream = new BufferedInputStream(PAULAArchive.openInputStream(paulaFile));
+		try {
+			this.doctype = readDoctype(inputStream);
+			synchronized (factory) {
+				this.xmlReader = factory.createXMLStreamReader(paulaFile.toURI().toString(), inputStream);
+			}
+		} catch (XMLStreamException | IOException e) {
+			inputStream.close();
+			throw e;
+		}
+		this.attributes = new StreamAttributes(xmlReader);
+	}
+
+	/**
+	 * @return the file read by this object
+	 */
+	public File getPaulaFile() {
+		return paulaFile;
+	}
+
+	/**
+	 * Passes all events to the handler until the end of the file is reached
+	 * or a file is required, which has not been read yet.
+	 *
+	 * @return the required file or null, if the file has been read completely
+	 */
+	public File read() throws XMLStreamException, SAXException {
+		while (true) {
+			if (paused) {
+				paused = false;
+			} else if (started) {
+				if (!xmlReader.hasNext()) {
+					return null;
+				}
+				xmlReader.next();
+			} else {
+				started = true;
+			}
+			switch (xmlReader.getEventType()) {
+			case XMLStreamConstants.START_DOCUMENT:
+				handler.startDocument();
+				break;
+			case XMLStreamConstants.DTD:
+				// not all implementations return the entire declaration,
+				// some only return the internal subset
+				String[] dtd = parseDoctype((doctype != null) ? doctype : xmlReader.getText());
+				handler.startDTD(dtd[0], dtd[1], dtd[2]);
+				handler.endDTD();
+				break;
+			case XMLStreamConstants.START_ELEMENT:
+				String qName = getQName(xmlReader.getPrefix(), xmlReader.getLocalName());
+				File requiredFile = getRequiredFile(qName);
+				if (requiredFile != null) {
+					paused = true;
+					return requiredFile;
+				}
+				handler.startElement(xmlReader.getNamespaceURI(), xmlReader.getLocalName(), qName, attributes);
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				handler.endElement(xmlReader.getNamespaceURI(), xmlReader.getLocalName(),
+						getQName(xmlReader.getPrefix(), xmlReader.getLocalName()));
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+				handler.characters(xmlReader.getTextCharacters(), xmlReader.getTextStart(),
+						xmlReader.getTextLength());
+				break;
+			case XMLStreamConstants.END_DOCUMENT:
+				handler.endDocument();
+				return null;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Returns the file referred by the xml:base of a list element, if it has
+	 * not been read yet.
+	 */
+	private File getRequiredFile(String qName) {
+		if ((paulaFileDelegator == null) || (!qName.endsWith("List"))) {
+			return null;
+		}
+		String xmlBase = attributes.getValue(PAULAXMLDictionary.ATT_BASE);
+		if ((xmlBase == null) || (xmlBase.isEmpty())) {
+			return null;
+		}
+		File baseFile = new File(xmlBase);
+		if (paulaFileDelegator.isPaulaFileProcessed(baseFile)) {
+			return null;
+		}
+		return baseFile;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			xmlReader.close();
+		} catch (XMLStreamException e) {
+			// the stream is closed anyway
+		}
+		inputStream.close();
+	}
+
+	/** number of bytes at the beginning of a file to search for the doctype **/
+	private static final int DOCTYPE_LOOKAHEAD = 4096;
+
+	/**
+	 * Reads the document type declaration from the beginning of the passed
+	 * stream without consuming it. The declaration consists of ASCII
+	 * characters, therefore only UTF-16 needs to be decoded differently.
+	 *
+	 * @return the declaration up to the internal subset or null, if it is not
+	 *         found at the beginning of the stream
+	 */
+	private static String readDoctype(InputStream inputStream) throws IOException {
+		byte[] buffer = new byte[DOCTYPE_LOOKAHEAD];
+		inputStream.mark(DOCTYPE_LOOKAHEAD);
+		int length = 0;
+		int read = 0;
+		while ((length < buffer.length) && ((read = inputStream.read(buffer, length, buffer.length - length)) != -1)) {
+			length += read;
+		}
+		inputStream.reset();
+		String charset = "ISO-8859-1";
+		if ((length >= 2) && (buffer[0] == (byte) 0xFE) && (buffer[1] == (byte) 0xFF)) {
+			charset = "UTF-16BE";
+		} else if ((length >= 2) && (buffer[0] == (byte) 0xFF) && (buffer[1] == (byte) 0xFE)) {
+			charset = "UTF-16LE";
+		}
+		String prolog = new String(buffer, 0, length, charset);
+		int start = prolog.indexOf("<!DOCTYPE");
+		if (start < 0) {
+			return null;
+		}
+		int end = start;
+		while ((end < prolog.length()) && (prolog.charAt(end) != '>') && (prolog.charAt(end) != '[')) {
+			end++;
+		}
+		return (end < prolog.length()) ? prolog.substring(start, end + 1) : null;
+	}
+
+	private static String getQName(String prefix, String localName) {
+		if ((prefix == null) || (prefix.isEmpty())) {
+			return localName;
+		}
+		return prefix + ":" + localName;
+	}
+
+	/**
+	 * Extracts name, public id and system id from a document type
+	 * declaration like &lt;!DOCTYPE paula SYSTEM "paula_mark.dtd"&gt;.
+	 *
+	 * @return an array containing name, public id and system id, missing
+	 *         values are null
+	 */
+	public static String[] parseDoctype(String doctype) {
+		String[] retVal = new String[3];
+		if (doctype == null) {
+			return retVal;
+		}
+		int pos = doctype.indexOf("DOCTYPE");
+		pos = (pos < 0) ? 0 : pos + "DOCTYPE".length();
+		pos = skipWhitespaces(doctype, pos);
+		int start = pos;
+		while ((pos < doctype.length()) && (!Character.isWhitespace(doctype.charAt(pos)))
+				&& (doctype.charAt(pos) != '>') && (doctype.charAt(pos) != '[')) {
+			pos++;
+		}
+		retVal[0] = doctype.substring(start, pos);
+		pos = skipWhitespaces(doctype, pos);
+		if (doctype.startsWith("PUBLIC", pos)) {
+			pos = skipWhitespaces(doctype, pos + "PUBLIC".length());
+			int end = readLiteral(doctype, pos);
+			if (end > pos) {
+				retVal[1] = doctype.substring(pos + 1, end - 1);
+				pos = skipWhitespaces(doctype, end);
+			}
+		} else if (doctype.startsWith("SYSTEM", pos)) {
+			pos = skipWhitespaces(doctype, pos + "SYSTEM".length());
+		} else {
+			return retVal;
+		}
+		int end = readLiteral(doctype, pos);
+		if (end > pos) {
+			retVal[2] = doctype.substring(pos + 1, end - 1);
+		}
+		return retVal;
+	}
+
+	private static int skipWhitespaces(String text, int pos) {
+		while ((pos < text.length()) && (Character.isWhitespace(text.charAt(pos)))) {
+			pos++;
+		}
+		return pos;
+	}
+
+	/**
+	 * @return the position behind the quoted literal starting at pos, or pos
+	 *         if there is none
+	 */
+	private static int readLiteral(String text, int pos) {
+		if ((pos >= text.length()) || ((text.charAt(pos) != '"') && (text.charAt(pos) != '\''))) {
+			return pos;
+		}
+		int end = text.indexOf(text.charAt(pos), pos + 1);
+		return (end < 0) ? pos : end + 1;
+	}
+
+	/**
+	 * A view of the attributes of the current start element of a
+	 * {@link XMLStreamReader}, the attributes are not copied.
+	 */
+	private static class StreamAttributes implements Attributes {
+		private final XMLStreamReader xmlReader;
+
+		private StreamAttributes(XMLStreamReader xmlReader) {
+			this.xmlReader = xmlReader;
+		}
+
+		@Override
+		public int getLength() {
+			return xmlReader.getAttributeCount();
+		}
+
+		@Override
+		public String getURI(int index) {
+			String uri = xmlReader.getAttributeNamespace(index);
+			return (uri == null) ? "" : uri;
+		}
+
+		@Override
+		public String getLocalName(int index) {
+			return xmlReader.getAttributeLocalName(index);
+		}
+
+		@Override
+		public String getQName(int index) {
+			return PAULAStAXReader.getQName(xmlReader.getAttributePrefix(index), xmlReader.getAttributeLocalName(index));
+		}
+
+		@Override
+		public String getType(int index) {
+			return xmlReader.getAttributeType(index);
+		}
+
+		@Override
+		public String getValue(int index) {
+			return xmlReader.getAttributeValue(index);
+		}
+
+		@Override
+		public int getIndex(String uri, String localName) {
+			for (int i = 0; i < getLength(); i++) {
+				if (getURI(i).equals(uri == null ? "" : uri) && getLocalName(i).equals(localName)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public int getIndex(String qName) {
+			for (int i = 0; i < getLength(); i++) {
+				if (getQName(i).equals(qName)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public String getType(String uri, String localName) {
+			int index = getIndex(uri, localName);
+			return (index < 0) ? null : getType(index);
+		}
+
+		@Override
+		public String getType(String qName) {
+			int index = getIndex(qName);
+			return (index < 0) ? null : getType(index);
+		}
+
+		@Override
+		public String getValue(String uri, String localName) {
+			int index = getIndex(uri, localName);
+			return (index < 0) ? null : getValue(index);
+		}
+
+		@Override
+		public String getValue(String qName) {
+			int index = getIndex(qName);
+			return (index < 0) ? null : getValue(index);
+		}
+	}
+}
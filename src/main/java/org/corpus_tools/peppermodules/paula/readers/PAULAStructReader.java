@@ -17,6 +17,7 @@
  */
 package org.corpus_tools.peppermodules.paula.readers;
 
+import org.corpus_tools.peppermodules.paula.util.xPointer.XPointer;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
@@ -109,10 +110,11 @@ public class PAULAStructReader extends PAULASpecificReader {
 						relHref = attributes.getValue(i);
 				}
 				// checking if href contains a new not already read file
-				this.checkForFileReference(relHref);
+				XPointer relHrefPointer = new XPointer(relHref);
+				this.checkForFileReference(relHrefPointer);
 				// callback for mapper
 				this.getMapper().paulaSTRUCTConnector(this.getPaulaFile(), this.getPaulaID(), this.getPaulaType(),
-						this.getXmlBase(), this.structID, relID, relHref, relType);
+						this.getXmlBase(), this.structID, relID, relHrefPointer, relType);
 
 			} // do only if file is not the annoSet
 		}
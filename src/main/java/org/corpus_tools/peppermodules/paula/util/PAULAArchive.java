@@ -0,0 +1,418 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Gives access to PAULA corpora stored in a ZIP archive and to PAULA files
+ * compressed with gzip without extracting them. An entry of an archive is addressed by a path below the archive file
+ * as if the archive was a folder, for instance the entry
+ * 'rootCorpus/doc1/doc1.tok.xml' of '/data/corpus.zip' is addressed by
+ * '/data/corpus.zip/rootCorpus/doc1/doc1.tok.xml'. <br/>
+ * The static methods {@link #exists(File)}, {@link #isDirectory(File)},
+ * {@link #listFiles(File)} and {@link #openInputStream(File)} work for files
+ * on disk and for archive entries, files on disk are always preferred. An
+ * archive is opened once and shared by all importers reading it. Each of them
+ * acquires the archive by {@link #acquire(File)} and releases it by
+ * {@link #release(PAULAArchive)}, the archive is closed, when the last one
+ * released it. The static methods acquire the archive for the time of the
+ * lookup, a stream returned by {@link #openInputStream(File)} until it is
+ * closed. So an archive nobody acquired is opened and closed for each lookup.
+ * <br/>
+ * A file ending on '.gz' is decompressed while reading. It is the compressed
+ * twin of the file without this ending, for instance 'doc1.tok.xml.gz' is
+ * read instead of 'doc1.tok.xml', if only the compressed file exists.
+ */
+public final class PAULAArchive implements Closeable {
+	private static final Logger logger = LoggerFactory.getLogger(PAULAArchive.class);
+
+	/** file ending of supported archives **/
+	public static final String ENDING_ZIP = "zip";
+	/** file ending of files compressed with gzip **/
+	public static final String ENDING_GZIP = "gz";
+	/** size of the buffer used for decompression **/
+	private static final int GZIP_BUFFER_SIZE = 65536;
+
+	/**
+	 * all opened archives, corresponding to the archive file, only accessed
+	 * while holding the lock of this class
+	 **/
+	private static final Map<File, PAULAArchive> archives = new HashMap<File, PAULAArchive>();
+
+	private final File archiveFile;
+	private final ZipFile zipFile;
+	/** number of users, which acquired the archive and did not release it **/
+	private int references = 0;
+	/**
+	 * names of all folders in the archive (without trailing '/', root is ''),
+	 * corresponding to the names of their children
+	 **/
+	private final Map<String, TreeSet<String>> folders = new HashMap<String, TreeSet<String>>();
+
+	private PAULAArchive(File archiveFile) throws IOException {
+		this.archiveFile = archiveFile;
+		this.zipFile = new ZipFile(archiveFile);
+		folders.put("", new TreeSet<String>());
+		Enumeration<? extends ZipEntry> entries = zipFile.entries();
+		while (entries.hasMoreElements()) {
+			ZipEntry entry = entries.nextElement();
+			String name = entry.getName();
+			if (name.endsWith("/")) {
+				addFolder(name.substring(0, name.length() - 1));
+			} else {
+				addEntry(name);
+			}
+		}
+	}
+
+	/**
+	 * Adds the passed entry to its parent folder and adds all parent folders,
+	 * since archives do not need to contain entries for folders.
+	 */
+	private void addEntry(String name) {
+		int pos = name.lastIndexOf('/');
+		String parent = (pos < 0) ? "" : name.substring(0, pos);
+		addFolder(parent).add(name.substring(pos + 1));
+	}
+
+	private TreeSet<String> addFolder(String name) {
+		TreeSet<String> children = folders.get(name);
+		if (children == null) {
+			children = new TreeSet<String>();
+			folders.put(name, children);
+			addEntry(name);
+		}
+		return children;
+	}
+
+	/**
+	 * @return true, if the passed file is a ZIP archive
+	 */
+	public static boolean isArchive(File file) {
+		return (file != null) && (file.getName().toLowerCase().endsWith("." + ENDING_ZIP)) && (file.isFile());
+	}
+
+	/**
+	 * Returns the archive, which contains the passed path or is the passed
+	 * path and keeps it open until it is released by
+	 * {@link #release(PAULAArchive)}. The archive is opened, if necessary.
+	 *
+	 * @return the archive or null, if the path is not located in an archive
+	 */
+	public static synchronized PAULAArchive acquire(File path) {
+		if (path == null) {
+			return null;
+		}
+		File file = path.getAbsoluteFile();
+		while (file != null) {
+			PAULAArchive archive = archives.get(file);
+			if ((archive == null) && (isArchive(file))) {
+				try {
+					archive = new PAULAArchive(file);
+				} catch (IOException e) {
+					logger.warn("[PAULAImporter] Cannot open archive '{}'. ", file.getAbsolutePath(), e);
+					return null;
+				}
+				archives.put(file, archive);
+			}
+			if (archive != null) {
+				archive.references++;
+				return archive;
+			}
+			if (file.exists()) {
+				// a folder on disk, cannot be inside an archive
+				return null;
+			}
+			file = file.getParentFile();
+		}
+		return null;
+	}
+
+	/**
+	 * Releases an archive acquired by {@link #acquire(File)}. The archive is
+	 * closed, when no other user acquired it.
+	 */
+	public static synchronized void release(PAULAArchive archive) {
+		if (archive == null) {
+			return;
+		}
+		archive.references--;
+		if (archive.references <= 0) {
+			archives.remove(archive.getArchiveFile());
+			try {
+				archive.close();
+			} catch (IOException e) {
+				logger.debug("[PAULAImporter] Cannot close archive '{}'. ", archive.getArchiveFile(), e);
+			}
+		}
+	}
+
+	/**
+	 * @return true, if the passed archive file is opened, because it is
+	 *         acquired
+	 */
+	static synchronized boolean isOpen(File archiveFile) {
+		return archives.containsKey(archiveFile.getAbsoluteFile());
+	}
+
+	/**
+	 * @return the archive file
+	 */
+	public File getArchiveFile() {
+		return archiveFile;
+	}
+
+	/**
+	 * Returns the name of the entry addressed by the passed path, the root of
+	 * the archive is ''.
+	 */
+	private String getEntryName(File path) {
+		String archivePath = archiveFile.getAbsolutePath();
+		String name = path.getAbsoluteFile().toPath().normalize().toString();
+		if (name.length() <= archivePath.length()) {
+			return "";
+		}
+		name = name.substring(archivePath.length() + 1);
+		return name.replace(File.separatorChar, '/');
+	}
+
+	@Override
+	public void close() throws IOException {
+		zipFile.close();
+	}
+
+	/**
+	 * @return true, if the passed file exists on disk or as entry of an
+	 *         archive
+	 */
+	public static boolean exists(File file) {
+		if (file.exists()) {
+			return true;
+		}
+		PAULAArchive archive = acquire(file);
+		if (archive == null) {
+			return false;
+		}
+		try {
+			String name = archive.getEntryName(file);
+			return (archive.folders.containsKey(name)) || (archive.zipFile.getEntry(name) != null);
+		} finally {
+			release(archive);
+		}
+	}
+
+	/**
+	 * @return true, if the passed file is a folder on disk, a folder of an
+	 *         archive or an archive
+	 */
+	public static boolean isDirectory(File file) {
+		if (file.isDirectory()) {
+			return true;
+		}
+		PAULAArchive archive = acquire(file);
+		if (archive == null) {
+			return false;
+		}
+		try {
+			return archive.folders.containsKey(archive.getEntryName(file));
+		} finally {
+			release(archive);
+		}
+	}
+
+	/**
+	 * Lists the content of the passed folder on disk or in an archive. For an
+	 * archive file, the root of the archive is listed.
+	 *
+	 * @return the contained files and folders or null, if the passed file is
+	 *         no folder
+	 */
+	public static File[] listFiles(File folder) {
+		if (folder.isDirectory()) {
+			return folder.listFiles();
+		}
+		PAULAArchive archive = acquire(folder);
+		if (archive == null) {
+			return null;
+		}
+		TreeSet<String> children = null;
+		try {
+			children = archive.folders.get(archive.getEntryName(folder));
+		} finally {
+			release(archive);
+		}
+		if (children == null) {
+			return null;
+		}
+		List<File> retVal = new ArrayList<File>(children.size());
+		for (String child : children) {
+			retVal.add(new File(folder, child));
+		}
+		return retVal.toArray(new File[retVal.size()]);
+	}
+
+	/**
+	 * Returns the size of the passed file on disk or in an archive as it is
+	 * stored, for a file compressed with gzip this is the compressed size.
+	 *
+	 * @return the size in bytes or 0, if the file does not exist or the size
+	 *         is unknown
+	 */
+	public static long getSize(File file) {
+		if (file.isFile()) {
+			return file.length();
+		}
+		PAULAArchive archive = acquire(file);
+		if (archive != null) {
+			try {
+				ZipEntry entry = archive.zipFile.getEntry(archive.getEntryName(file));
+				if ((entry != null) && (entry.getSize() > 0)) {
+					return entry.getSize();
+				}
+			} finally {
+				release(archive);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Opens the passed file on disk or in an archive for reading. Files
+	 * compressed with gzip are decompressed. The archive is kept open until
+	 * the stream is closed.
+	 *
+	 * @return a stream to read the content of the file
+	 */
+	public static InputStream openInputStream(File file) throws IOException {
+		InputStream retVal = null;
+		if (file.isFile()) {
+			retVal = new FileInputStream(file);
+		} else {
+			PAULAArchive archive = acquire(file);
+			if (archive != null) {
+				try {
+					ZipEntry entry = archive.zipFile.getEntry(archive.getEntryName(file));
+					if ((entry != null) && (!entry.isDirectory())) {
+						retVal = new EntryInputStream(archive, archive.zipFile.getInputStream(entry));
+					}
+				} finally {
+					if (retVal == null) {
+						release(archive);
+					}
+				}
+			}
+		}
+		if (retVal == null) {
+			throw new FileNotFoundException(file.getAbsolutePath() + " (No such file or directory)");
+		}
+		if (isCompressed(file)) {
+			try {
+				retVal = new GZIPInputStream(retVal, GZIP_BUFFER_SIZE);
+			} catch (IOException e) {
+				retVal.close();
+				throw e;
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * A stream reading an entry of an archive, which releases the archive when
+	 * the stream is closed.
+	 */
+	private static class EntryInputStream extends FilterInputStream {
+		private PAULAArchive archive;
+
+		private EntryInputStream(PAULAArchive archive, InputStream in) {
+			super(in);
+			this.archive = archive;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				if (archive != null) {
+					release(archive);
+					archive = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return true, if the passed file is compressed with gzip
+	 */
+	public static boolean isCompressed(File file) {
+		return file.getName().toLowerCase().endsWith("." + ENDING_GZIP);
+	}
+
+	/**
+	 * Returns the passed file without the ending '.gz', for instance
+	 * 'doc1.tok.xml' for 'doc1.tok.xml.gz'. This is the name under which the
+	 * content of a compressed file is mapped and referred by other files.
+	 *
+	 * @return the file without ending '.gz' or the passed file, if it is not
+	 *         compressed
+	 */
+	public static File getUncompressedFile(File file) {
+		if (!isCompressed(file)) {
+			return file;
+		}
+		String path = file.getPath();
+		return new File(path.substring(0, path.length() - ENDING_GZIP.length() - 1));
+	}
+
+	/**
+	 * Returns the file to be read for the passed file. This is the file itself
+	 * if it exists, otherwise its compressed twin with the ending '.gz', if
+	 * that exists.
+	 *
+	 * @return the file to be read
+	 */
+	public static File getSourceFile(File file) {
+		if ((isCompressed(file)) || (exists(file))) {
+			return file;
+		}
+		File compressedFile = new File(file.getPath() + "." + ENDING_GZIP);
+		if (exists(compressedFile)) {
+			return compressedFile;
+		}
+		return file;
+	}
+}
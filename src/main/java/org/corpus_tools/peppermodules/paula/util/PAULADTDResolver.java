@@ -0,0 +1,126 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLResolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+
+/**
+ * Resolves the dtds of PAULA 1.1 (paula_text.dtd, paula_mark.dtd,
+ * paula_struct.dtd, paula_rel.dtd, paula_feat.dtd, paula_multiFeat.dtd and
+ * paula_header.dtd) from the resources bundled with this module. The dtds are
+ * read once and kept in memory, so that no lookup in the file system is
+ * necessary for each paula-file and files without a dtd next to them can be
+ * read. All other entities are resolved by the parser as usual. The resolver
+ * can be used for SAX and for StAX.
+ */
+public final class PAULADTDResolver implements EntityResolver, XMLResolver {
+	private static final Logger logger = LoggerFactory.getLogger(PAULADTDResolver.class);
+
+	/** folder containing the bundled dtds **/
+	public static final String PATH_DTD = "/dtd_11/";
+
+	private static final String[] DTD_NAMES = { "paula_header.dtd", "paula_text.dtd", "paula_mark.dtd",
+			"paula_struct.dtd", "paula_rel.dtd", "paula_feat.dtd", "paula_multiFeat.dtd" };
+
+	/** the content of the bundled dtds, corresponding to their names **/
+	private static final Map<String, byte[]> dtds = loadDTDs();
+
+	private static final PAULADTDResolver instance = new PAULADTDResolver();
+
+	private PAULADTDResolver() {
+	}
+
+	/**
+	 * @return the shared instance, the resolver is stateless and thread safe
+	 */
+	public static PAULADTDResolver getInstance() {
+		return instance;
+	}
+
+	private static Map<String, byte[]> loadDTDs() {
+		Map<String, byte[]> retVal = new HashMap<String, byte[]>();
+		for (String dtdName : DTD_NAMES) {
+			try (InputStream in = PAULADTDResolver.class.getResourceAsStream(PATH_DTD + dtdName)) {
+				if (in == null) {
+					logger.warn("[PAULAImporter] Cannot find bundled dtd '{}{}'. ", PATH_DTD, dtdName);
+					continue;
+				}
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				int length;
+				while ((length = in.read(buffer)) != -1) {
+					out.write(buffer, 0, length);
+				}
+				retVal.put(dtdName.toLowerCase(), out.toByteArray());
+			} catch (IOException e) {
+				logger.warn("[PAULAImporter] Cannot read bundled dtd '{}{}'. ", PATH_DTD, dtdName, e);
+			}
+		}
+		return Collections.unmodifiableMap(retVal);
+	}
+
+	/**
+	 * Returns the bundled dtd, if the last segment of the system id is the
+	 * name of a PAULA dtd. Returns null otherwise, which means the parser
+	 * resolves the entity itself.
+	 */
+	@Override
+	public InputSource resolveEntity(String publicId, String systemId) {
+		InputStream dtd = getDTD(systemId);
+		if (dtd == null) {
+			return null;
+		}
+		InputSource retVal = new InputSource(dtd);
+		retVal.setPublicId(publicId);
+		retVal.setSystemId(systemId);
+		return retVal;
+	}
+
+	/**
+	 * Same as {@link #resolveEntity(String, String)} for StAX.
+	 */
+	@Override
+	public Object resolveEntity(String publicID, String systemID, String baseURI, String namespace) {
+		return getDTD(systemID);
+	}
+
+	private InputStream getDTD(String systemId) {
+		if (systemId == null) {
+			return null;
+		}
+		String dtdName = systemId.substring(systemId.lastIndexOf('/') + 1).toLowerCase();
+		byte[] dtd = dtds.get(dtdName);
+		if (dtd == null) {
+			return null;
+		}
+		return new ByteArrayInputStream(dtd);
+	}
+}
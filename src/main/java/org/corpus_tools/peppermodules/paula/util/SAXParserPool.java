@@ -0,0 +1,134 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.SAXException;
+
+/**
+ * A per thread pool of {@link SAXParser} objects. Creating a parser is
+ * expensive compared to parsing a small paula-file, therefore parsers are
+ * reset and reused for further files and documents of the same thread.
+ * <br/>
+ * A parser is borrowed via {@link #borrow()} and must be given back via
+ * {@link #release(SAXParser)} after parsing. Since a file can be read while
+ * another file is read in the same thread, each thread holds a small stack of
+ * idle parsers. The pool counts created and reused parsers and the time needed
+ * for creation to measure the saving, see {@link #getStatistics()}.
+ */
+public final class SAXParserPool {
+	/** maximal number of idle parsers per thread **/
+	private static final int MAX_IDLE_PARSERS = 4;
+
+	private static final SAXParserFactory factory = SAXParserFactory.newInstance();
+
+	private static final ThreadLocal<Deque<SAXParser>> idleParsers = new ThreadLocal<Deque<SAXParser>>() {
+		@Override
+		protected Deque<SAXParser> initialValue() {
+			return new ArrayDeque<SAXParser>(MAX_IDLE_PARSERS);
+		}
+	};
+
+	private static final AtomicLong numOfCreatedParsers = new AtomicLong();
+	private static final AtomicLong numOfReusedParsers = new AtomicLong();
+	private static final AtomicLong creationTime = new AtomicLong();
+
+	private SAXParserPool() {
+	}
+
+	/**
+	 * Returns an idle parser of the current thread or creates a new one, if
+	 * none is idle.
+	 *
+	 * @return a parser which is not in use
+	 */
+	public static SAXParser borrow() throws ParserConfigurationException, SAXException {
+		SAXParser parser = idleParsers.get().poll();
+		if (parser != null) {
+			numOfReusedParsers.incrementAndGet();
+			return parser;
+		}
+		long timestamp = System.nanoTime();
+		synchronized (factory) {
+			parser = factory.newSAXParser();
+		}
+		creationTime.addAndGet(System.nanoTime() - timestamp);
+		numOfCreatedParsers.incrementAndGet();
+		return parser;
+	}
+
+	/**
+	 * Resets the passed parser and makes it available for further use in the
+	 * current thread. All handlers, features and properties set on the parser
+	 * or its {@link org.xml.sax.XMLReader} are reset.
+	 *
+	 * @param parser
+	 *            the parser which is not used anymore
+	 */
+	public static void release(SAXParser parser) {
+		if (parser == null) {
+			return;
+		}
+		Deque<SAXParser> idle = idleParsers.get();
+		if (idle.size() >= MAX_IDLE_PARSERS) {
+			return;
+		}
+		try {
+			parser.reset();
+		} catch (UnsupportedOperationException e) {
+			// parser cannot be reused
+			return;
+		}
+		idle.push(parser);
+	}
+
+	/** @return the number of parsers created so far **/
+	public static long getNumOfCreatedParsers() {
+		return numOfCreatedParsers.get();
+	}
+
+	/** @return the number of times an idle parser was reused **/
+	public static long getNumOfReusedParsers() {
+		return numOfReusedParsers.get();
+	}
+
+	/** @return the time in nanoseconds needed to create all parsers **/
+	public static long getCreationTime() {
+		return creationTime.get();
+	}
+
+	/**
+	 * Returns a human readable summary of the pool usage. The saved time is
+	 * estimated by the average creation time of a parser multiplied with the
+	 * number of reuses.
+	 */
+	public static String getStatistics() {
+		long created = getNumOfCreatedParsers();
+		long reused = getNumOfReusedParsers();
+		long avgCreationTime = (created == 0) ? 0 : getCreationTime() / created;
+		return "created parsers: " + created + ", reused parsers: " + reused + ", avg. creation time: "
+				+ (avgCreationTime / 1000) + " µs, estimated saving: " + ((avgCreationTime * reused) / 1000000) + " ms";
+	}
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.util.xPointer;
+
+import java.util.List;
+
+/**
+ * An href of a PAULA element parsed once. The PAULA readers create one object
+ * per href and pass it to the callbacks of the mapper, so that the document
+ * referred by the href and the targets of the href are computed from the same
+ * parsing result. <br/>
+ * The result of {@link #getResult(String)} is the same as the one of an
+ * {@link XPtrInterpreter} initialized with
+ * {@link XPtrInterpreter#setInterpreter(String, String)}, but the xml-base can
+ * be passed when resolving the href.
+ */
+public final class XPointer {
+	/** the href as it is given in the PAULA file **/
+	private final String href;
+	/** the document contained in the href or null **/
+	private String doc = null;
+	/** the scanned pointer without the document **/
+	private XPtrScanner scanner = null;
+	/** error thrown when splitting the href into document and pointer **/
+	private RuntimeException error = null;
+
+	public XPointer(String href) {
+		this.href = href;
+		if (href == null) {
+			return;
+		}
+		try {
+			String[] parts = XPtrInterpreter.splitBaseXPtr(href);
+			this.doc = parts[0];
+			String xPtr = (parts[0] != null) ? parts[1] : href;
+			if ((xPtr != null) && (!xPtr.isEmpty())) {
+				scanner = new XPtrScanner(xPtr);
+				scanner.scan();
+			}
+		} catch (RuntimeException e) {
+			this.error = e;
+		}
+	}
+
+	/**
+	 * @return the href as it is given in the PAULA file
+	 */
+	public String getHref() {
+		return href;
+	}
+
+	/**
+	 * @return the document contained in the href like 'doc.tok.xml' in
+	 *         'doc.tok.xml#tok_1' or null, if the href does not contain a
+	 *         document
+	 */
+	public String getDoc() {
+		return doc;
+	}
+
+	/**
+	 * @return the document the href refers to, which is the contained document
+	 *         or the passed xml-base
+	 */
+	public String getDoc(String xmlBase) {
+		return (doc != null) ? doc : xmlBase;
+	}
+
+	/**
+	 * Returns the targets of this href. References without an own document
+	 * refer to the document returned by {@link #getDoc(String)}.
+	 *
+	 * @param xmlBase
+	 *            the xml-base of the list element containing the href
+	 * @return the targets of the href
+	 * @throws Exception
+	 *             if the href does not follow the supported syntax
+	 */
+	public List<XPtrRef> getResult(String xmlBase) throws Exception {
+		if (error != null) {
+			throw error;
+		}
+		if (href == null) {
+			throw new NullPointerException("The given XPointer expression is empty.");
+		}
+		return XPtrInterpreter.createXPtrRefs(scanner, getDoc(xmlBase));
+	}
+
+	@Override
+	public String toString() {
+		return href;
+	}
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.util.xPointer;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of resolved hrefs, corresponding to the xml-base and the
+ * href, the least recently used entry is removed first. A resolved href is the
+ * list of the PAULA elements it refers to. <br/>
+ * A range refers to all elements of a file between its borders, so its result
+ * depends on the elements read so far. Therefore each entry stores the
+ * version of every file it depends on, see {@link Versions}. An entry is
+ * invalid and resolved again, as soon as the version of one of these files
+ * has changed. <br/>
+ * The cache is meant to be used by one mapper, it is not thread safe.
+ *
+ * @param <E>
+ *            type of the identifiers of the PAULA elements
+ */
+public class XPointerCache<E> {
+
+	/**
+	 * Gives the current version of a file, which must change whenever an
+	 * element is added to the file.
+	 */
+	public interface Versions {
+		int getVersion(String doc);
+	}
+
+	private final int maxSize;
+	private final Versions versions;
+	private final Map<Key, Entry<E>> entries;
+
+	private long hits = 0;
+	private long misses = 0;
+
+	/**
+	 * @param maxSize
+	 *            maximal number of entries, a value smaller than 1 disables
+	 *            the cache
+	 * @param versions
+	 *            gives the current version of a file
+	 */
+	public XPointerCache(final int maxSize, Versions versions) {
+		this.maxSize = maxSize;
+		this.versions = versions;
+		this.entries = new LinkedHashMap<Key, Entry<E>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry<E>> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * @return the ids of the PAULA elements the href refers to or null, if
+	 *         the href is not cached or the cached entry is out of date
+	 */
+	public Collection<E> get(String xmlBase, String href) {
+		return get(xmlBase, href, versions);
+	}
+
+	/**
+	 * Same as {@link #get(String, String)}, but the versions of the files are
+	 * given by the passed {@link Versions} instead of the one of the cache.
+	 * Useful when the caller already looked up the files.
+	 *
+	 * @return the ids of the PAULA elements the href refers to or null, if
+	 *         the href is not cached or the cached entry is out of date
+	 */
+	public Collection<E> get(String xmlBase, String href, Versions versions) {
+		if (maxSize < 1) {
+			return null;
+		}
+		Key key = new Key(xmlBase, href);
+		Entry<E> entry = entries.get(key);
+		if (entry != null) {
+			for (int i = 0; i < entry.docs.length; i++) {
+				if (versions.getVersion(entry.docs[i]) != entry.versions[i]) {
+					entries.remove(key);
+					entry = null;
+					break;
+				}
+			}
+		}
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return entry.ids;
+	}
+
+	/**
+	 * Caches the ids of the PAULA elements the href refers to.
+	 *
+	 * @param docs
+	 *            the files, whose elements have been used for resolving the
+	 *            href (the files referred by ranges)
+	 */
+	public void put(String xmlBase, String href, Collection<E> ids, Collection<String> docs) {
+		put(xmlBase, href, ids, docs, versions);
+	}
+
+	/**
+	 * Same as {@link #put(String, String, Collection, Collection)}, but the
+	 * versions of the files are given by the passed {@link Versions}.
+	 */
+	public void put(String xmlBase, String href, Collection<E> ids, Collection<String> docs, Versions versions) {
+		if (maxSize < 1) {
+			return;
+		}
+		Entry<E> entry = new Entry<E>();
+		entry.ids = Collections.unmodifiableCollection(ids);
+		entry.docs = docs.toArray(new String[docs.size()]);
+		entry.versions = new int[entry.docs.length];
+		for (int i = 0; i < entry.docs.length; i++) {
+			entry.versions[i] = versions.getVersion(entry.docs[i]);
+		}
+		entries.put(new Key(xmlBase, href), entry);
+	}
+
+	/**
+	 * @return number of requests answered from the cache
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return number of requests not answered from the cache
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return number of cached entries
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	private static class Entry<E> {
+		private Collection<E> ids = null;
+		private String[] docs = null;
+		private int[] versions = null;
+	}
+
+	private static final class Key {
+		private final String xmlBase;
+		private final String href;
+		private final int hash;
+
+		private Key(String xmlBase, String href) {
+			this.xmlBase = xmlBase;
+			this.href = href;
+			this.hash = 31 * ((xmlBase == null) ? 0 : xmlBase.hashCode()) + ((href == null) ? 0 : href.hashCode());
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return (hash == other.hash) && (equals(xmlBase, other.xmlBase)) && (equals(href, other.href));
+		}
+
+		private static boolean equals(String a, String b) {
+			return (a == null) ? (b == null) : a.equals(b);
+		}
+	}
+}
@@ -18,10 +18,7 @@
 package org.corpus_tools.peppermodules.paula.util.xPointer;
 
 import java.util.Vector;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
-import org.corpus_tools.peppermodules.paula.util.xPointer.XPtrRef.POINTERTYPE;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,44 +58,6 @@ public class XPtrInterpreter {
 								// bezieht
 	private String xPtr = null; // Xpointer der interpretiert werden soll
 
-	// Patterndefinition
-
-	// String pattern=
-	// "#xpointer[(]string-range[(][/][/][A-Z]*,['][A-Z]*['],[0-9]*,[0-9]*[)][)]";
-	// #xpointer(string-range(//body,'',1,5))
-	// private static final String strRange= idPtr + "[/]range-to" +
-	// "[()]"+idPtr + "[()]";
-
-	// einfacher numerischer Wert
-	private static final String REGEX_NUM_VAL = "[0-9]+";
-	// Inhalt der string-ranke Fkt
-	private static final String REGEX_STRING_RANGE_CONT = "[/][/]body\\s*,\\s*[']\\s*[']\\s*,\\s*" + REGEX_NUM_VAL
-			+ "\\s*,\\s*" + REGEX_NUM_VAL;
-	// kompletter Aufruf der string-range Fkt
-	private static final String REGEX_STRING_RANGE = "string-range[(]" + REGEX_STRING_RANGE_CONT + "[)]";
-	// XPointer with string-range
-	private static final String REGEX_STRING_RANGE_PTR = "#xpointer[(]" + REGEX_STRING_RANGE + "[)]";
-
-	// reference to a file
-	private static final String REGEX_XML_FILE_PTR = "^[^#]+\\.xml$";
-	// ID of an element
-	private static final String REGEX_ID_VAL = "\\s*[a-zA-Z0-9_-[.]]+\\s*";
-	// ShorthandPointernotation for simple tokens
-	private static final String REGEX_SHORTHAND_PTR = "\\s*#" + REGEX_ID_VAL;
-	// full ShorthandPointernotation for simple tokens starting with a file name
-	// (file.xml#shPointer)
-	private static final String REGEX_FULL_SHORTHAND_PTR = "[^#]+\\.xml" + "#" + REGEX_ID_VAL;
-	// Pointer with id() function
-	private static final String REGEX_ID_PRTR = "id[(][']" + REGEX_ID_VAL + "['][)]";
-	// general range
-	private static final String REGEX_RANGE = REGEX_ID_PRTR + "[/]range-to" + "[()]" + REGEX_ID_PRTR + "[()]";
-	// token range
-	private static final String REGEX_RANGE_PTR = "#xpointer[(]" + REGEX_RANGE + "[)]";
-	// token sequence
-	private static final String REGEX_SEQ_PTR = "[(](" + REGEX_RANGE_PTR + "|" + REGEX_SHORTHAND_PTR + "|"
-			+ REGEX_FULL_SHORTHAND_PTR + ")" + "([,](" + REGEX_RANGE_PTR + "|" + REGEX_SHORTHAND_PTR + "|"
-			+ REGEX_FULL_SHORTHAND_PTR + "))*" + "[)]";
-
 	/**
 	 * Tokentype kann einfaches Token (kontinuierlich),
 	 * Tokenbereich(kontinuierlich), Tokensequenz (diskontinuierlich) oder
@@ -116,11 +75,12 @@ public class XPtrInterpreter {
 													// XPointer
 	// *************************************** Fehlermeldungen
 	// ***************************************
+	// the supported syntax, used in error messages
+	private static final String SUPPORTED_SYNTAX = "#id | #id #id ... | #xpointer(id('id')/range-to(id('id')))"
+			+ " | #xpointer(string-range(//body,'',start,length)) | (pointer, pointer, ...) | file.xml";
 	private static final String ERR_EMPTY_XPTR = "The given XPointer is empty.";
 	private static final String ERR_EMPTY_BASE = "The given base name is empty.";
 	private static final String ERR_NO_EX = "No xpointer expression was given.";
-	private static final String ERR_WRONG_EX = "The given xpointer expression does not follows the supported syntax '"
-			+ REGEX_SEQ_PTR + "': ";
 	private static final String ERR_BASE_NOT_XML = "The base included in the xpointer is no xml file.";
 	private static final String ERR_EMPTY_EX = "The given expression is empty.";
 	private static final String ERR_NO_BASE = "The given expression does not conatain any base document. ";
@@ -151,13 +111,13 @@ public class XPtrInterpreter {
 	public XPtrInterpreter(String base, String xPtr) throws Exception {
 		// wenn base nicht gesetzt ist
 		if (base == null) {
-			String[] parts = this.extractBaseXPtr(xPtr);
+			String[] parts = extractBaseXPtr(xPtr);
 			this.setInterpreter(parts[0], parts[1]);
 			return;
 		}
 		try {
 			// wenn Basis �bergeben wurde und der XPtr eine Basis enth�lt
-			String[] parts = this.extractBaseXPtr(xPtr);
+			String[] parts = extractBaseXPtr(xPtr);
 			this.setInterpreter(parts[0], parts[1]);
 		}
 		// wenn Basis und Xpointer(ohne eigene Basis) gegeben ist
@@ -180,7 +140,7 @@ public class XPtrInterpreter {
 	 *         zwieter der XPointer
 	 */
 
-	private String[] extractBaseXPtr(String ex) throws Exception {
+	private static String[] extractBaseXPtr(String ex) throws Exception {
 		if ((ex == null) || ("".equals(ex)))
 			throw new Exception(ERR_EMPTY_EX);
 		String[] retArr = new String[2];
@@ -213,66 +173,51 @@ public class XPtrInterpreter {
 
 	/**
 	 * Erzeugt aus einer gegebenen XPointer-Expression eine Liste von
-	 * XptrTarget-Objekten und gibt diese zur�ck.
+	 * XptrTarget-Objekten und gibt diese zur�ck. The expression is scanned
+	 * once by a {@link XPtrScanner}, references without an own document refer
+	 * to the base document.
 	 */
 	private Vector<XPtrRef> getXPtrRefs(String ex) throws Exception {
 		// Fehler wenn ex leer ist
 		if ((ex == null) || ("".equals(ex)))
 			throw new Exception(ERR_NO_EX);
 
-		TOKENTYPE tokType = this.getXPtrType(ex);
-		logger.debug("[PAULAImporter] type of xpointer expression '{}' is {}.", ex, tokType);
+		XPtrScanner scanner = new XPtrScanner(ex);
+		scanner.scan();
+		return (createXPtrRefs(scanner, this.base));
+	}
+
+	/**
+	 * Creates the references found by the passed scanner, references without
+	 * an own document refer to the passed base document.
+	 */
+	static Vector<XPtrRef> createXPtrRefs(XPtrScanner scanner, String base) throws Exception {
+		if (scanner == null)
+			throw new Exception(ERR_NO_EX);
+		TOKENTYPE tokType = scanner.getTokenType();
+		logger.debug("[PAULAImporter] type of xpointer expression '{}' is {}.", scanner.getExpression(), tokType);
 
 		// if expression is not conform to supported syntax
 		if (tokType == TOKENTYPE.ERROR)
-			throw new Exception("The given xpointer expression '" + ex + "' does not follows the supported syntax '"
-					+ REGEX_SEQ_PTR);
-
-		Vector<XPtrRef> trList = new Vector<XPtrRef>();
-
-		// Wenn ex einfaches Token zum Ziel hat
-		if (tokType == TOKENTYPE.TOKEN) {
-			trList.add(this.getFromSimpleToken(ex));
-		}
-		// Wenn ex Tokenbereich zum Ziel hat
-		else if (tokType == TOKENTYPE.TOKENRANGE) {
-			trList.add(this.getFromTokenRange(ex));
-		}
-		// Wenn ex Tokensequenz zum Ziel hat
-		else if (tokType == TOKENTYPE.TOKENSEQ) {
-			// extrahiere die einfachen Ziele und Bereichsziele
-			String strPat = "(" + REGEX_RANGE_PTR + "|" + REGEX_SHORTHAND_PTR + "|" + REGEX_FULL_SHORTHAND_PTR + ")";
-			Pattern pattern = Pattern.compile(strPat, Pattern.CASE_INSENSITIVE);
-			Matcher matcher = pattern.matcher(ex);
-			while (matcher.find()) {
-				// Pattern pat2= Pattern.compile(xPtr,
-				// Pattern.CASE_INSENSITIVE);
-				Pattern pat2 = Pattern.compile(REGEX_RANGE_PTR, Pattern.CASE_INSENSITIVE);
-				Matcher match2 = pat2.matcher(matcher.group());
-				// wenn String Bereich ist
-				if (match2.find()) {
-					trList.add(this.getFromTokenRange(match2.group()));
-				}
-				// wenn String kein Bereich
-				else {
-					String ptr = matcher.group();
-					// Sequenz�berreste entfernen
-					ptr = ptr.replace("(", "");
-					ptr = ptr.replace(")", "");
-					ptr = ptr.replace(",", "");
-					trList.add(this.getFromSimpleToken(ptr));
-				}
+			throw new Exception("The given xpointer expression '" + scanner.getExpression()
+					+ "' does not follow the supported syntax '" + SUPPORTED_SYNTAX + "'.");
+
+		Vector<XPtrRef> trList = new Vector<XPtrRef>(scanner.getNumOfRefs());
+		for (int i = 0; i < scanner.getNumOfRefs(); i++) {
+			String doc = (scanner.getDoc(i) == null) ? base : scanner.getDoc(i);
+			XPtrRef tar = null;
+			if (scanner.getRight(i) == null) {
+				tar = new XPtrRef(doc, scanner.getLeft(i));
+			} else {
+				tar = new XPtrRef(doc, scanner.getLeft(i), scanner.getRight(i));
 			}
+			tar.setType(scanner.getType(i));
+			if (scanner.getType(i) == XPtrRef.POINTERTYPE.TEXT) {
+				// string ranges are parsed once here instead of by each user
+				tar.setTextRange(Integer.parseInt(scanner.getLeft(i)), Integer.parseInt(scanner.getRight(i)));
+			}
+			trList.add(tar);
 		}
-		// Wenn ex string-range Token zum Ziel hat
-		else if (tokType == TOKENTYPE.STRTOKENRANGE) {
-			trList.add(this.getFromStringRange(ex));
-		}
-		// Wenn ex einzelne Datei zum Ziel hat
-		else if (tokType == TOKENTYPE.SIMPLE_XML_FILE) {
-			trList.add(this.getFromSimpleXMLFile(ex));
-		}
-
 		return (trList);
 	}
 
@@ -285,185 +230,26 @@ public class XPtrInterpreter {
 	 * einfachen Token oder von Tokenbereichen (diskontinuierlich))
 	 */
 	private TOKENTYPE getXPtrType(String chckStr) {
-		// entferne alle Leerzeichen aus dem gegebenen XPointer
-		chckStr = chckStr.replaceAll(" ", "");
-
-		// Definition der RegEx-Vars
-		Pattern pattern = null; // zu pr�fendes Pattern
-		Matcher matcher = null; // genutzter Matcher
-		String strPattern = ""; // String Pattern
-
-		// String ist Tokenbereich (String enth�lt den String xpointer und
-		// range-to)
-		strPattern = REGEX_RANGE_PTR;
-		pattern = Pattern.compile(strPattern, Pattern.CASE_INSENSITIVE);
-		matcher = pattern.matcher(chckStr);
-		if (matcher.matches())
-			return (TOKENTYPE.TOKENRANGE);
-
-		// String ist Tokensequenz (String enth�lt den String xpointer, Inhalte
-		// sind einfache Token oder Tokenbereiche)
-		strPattern = REGEX_SEQ_PTR;
-		pattern = Pattern.compile(strPattern, Pattern.CASE_INSENSITIVE);
-		matcher = pattern.matcher(chckStr);
-		if (matcher.matches())
-			return (TOKENTYPE.TOKENSEQ);
-
-		// String ist einfaches Token (der String xpointer ist nicht enthalten
-		// und es ist keine Sequenz)
-		strPattern = REGEX_SHORTHAND_PTR;
-		pattern = Pattern.compile(strPattern, Pattern.CASE_INSENSITIVE);
-		matcher = pattern.matcher(chckStr);
-		// chStr passt auf ShorthandPointer, da Tokenbereich und Tokensequenz
-		// bereits gepr�ft wurden, muss es sich um ShorthandPointer handeln
-		if (matcher.matches())
-			return (TOKENTYPE.TOKEN);
-
-		// String ist Stringbereich
-		strPattern = REGEX_STRING_RANGE_PTR;
-		pattern = Pattern.compile(strPattern, Pattern.CASE_INSENSITIVE);
-		matcher = pattern.matcher(chckStr);
-		// chStr passt auf String-Range Pointer
-		if (matcher.matches())
-			return (TOKENTYPE.STRTOKENRANGE);
-
-		// String ist einzelne Datei
-		strPattern = REGEX_XML_FILE_PTR;
-		pattern = Pattern.compile(strPattern, Pattern.CASE_INSENSITIVE);
-		matcher = pattern.matcher(chckStr);
-		// chStr passt auf einfache XML-Datei- Pointer
-		if (matcher.matches())
-			return (TOKENTYPE.SIMPLE_XML_FILE);
-
-		return (TOKENTYPE.ERROR);
-	}
-
-	/**
-	 * Liest eine Expression aus, die einem einfachen Token entspricht. Der
-	 * ID-Wert wird extrahiert und ein XPtrTarget-Objekt erzeugt und
-	 * zur�ckgegeben
-	 * 
-	 * @param ex
-	 *            String - einfaches Token
-	 * @return XPtrTarget-Objekt, das der ID entspricht
-	 * @throws Exception
-	 */
-	private XPtrRef getFromSimpleToken(String ex) throws Exception {
-		XPtrRef tar = null;
-		Pattern pattern1 = Pattern.compile(REGEX_FULL_SHORTHAND_PTR, Pattern.CASE_INSENSITIVE);
-		Matcher matcher1 = pattern1.matcher(ex);
-
-		// wenn das Basis-Dokument im Pointer steht
-		if (matcher1.find()) {
-			String parts[] = ex.split("#");
-			// extrahiere die ID des Tokens
-			Pattern pattern = Pattern.compile(REGEX_ID_VAL, Pattern.CASE_INSENSITIVE);
-			Matcher matcher = pattern.matcher(parts[1]);
-			if (matcher.find()) {
-				// es sollte nur einen passenden Wert geben
-				String id = matcher.group().trim();
-				tar = new XPtrRef(parts[0].trim(), id);
-				tar.setType(POINTERTYPE.ELEMENT);
-			}
-		} else {
-			// extrahiere die ID des Tokens
-			Pattern pattern = Pattern.compile(REGEX_ID_VAL, Pattern.CASE_INSENSITIVE);
-			Matcher matcher = pattern.matcher(ex);
-			if (matcher.find()) {
-				// es sollte nur einen passenden Wert geben
-				String id = matcher.group().trim();
-				tar = new XPtrRef(this.base, id);
-				tar.setType(POINTERTYPE.ELEMENT);
-			}
-		}
-		return (tar);
-	}
-
-	/**
-	 * Liest eine Expression aus, die einem Tokenbereich entspricht. Der ID-Wert
-	 * wird extrahiert und ein XPtrTarget-Objekt erzeugt und zur�ckgegeben
-	 * 
-	 * @param ex
-	 *            String - einfaches Token
-	 * @return XPtrTarget-Objekt, das der ID entspricht
-	 * @throws Exception
-	 */
-	private XPtrRef getFromTokenRange(String ex) throws Exception {
-		XPtrRef tar = null;
-
-		// extrahiere die ID des Tokens
-		Pattern pattern = Pattern.compile("[']" + REGEX_ID_VAL + "[']", Pattern.CASE_INSENSITIVE);
-		Matcher matcher = pattern.matcher(ex);
-		String from = null;
-		String to = null;
-		int i = 0;
-		while (matcher.find()) {
-			// syntactic error, if more than two ids exist
-			if (i > 1)
-				throw new Exception(ERR_WRONG_EX + ex);
-			// Id�s haben vorne und hinten je einen Anf�hrungsstrich
-			else if (i == 0)
-				from = matcher.group().replaceAll("'", "");
-			else if (i == 1)
-				to = matcher.group().replaceAll("'", "");
-			i++;
-		}
-		tar = new XPtrRef(this.base, from.trim(), to.trim());
-		tar.setType(POINTERTYPE.ELEMENT);
-
-		return (tar);
+		XPtrScanner scanner = new XPtrScanner(chckStr);
+		scanner.scan();
+		return (scanner.getTokenType());
 	}
 
 	/**
-	 * Liest eine Expression aus, die einem string-range Bereich entspricht. Der
-	 * Startwert und die Zeichenl�nge werden extrahiert und als ID das
-	 * XPtrRef-Objekt geschrieben.
+	 * Splits the passed expression into the document it contains and the
+	 * pointer, see {@link #setInterpreter(String, String)}.
 	 * 
-	 * @param ex
-	 *            String - einfaches Token
-	 * @return XPtrTarget-Objekt, das Startposition des STrings und L�nge
-	 *         enth�lt
-	 * @throws Exception
+	 * @return 2-valued array, the first value is the contained document or
+	 *         null, the second one is the pointer
 	 */
-	private XPtrRef getFromStringRange(String ex) throws Exception {
-		XPtrRef tar = null;
-		// extrahiere die Startposition und L�nge des Tokens
-		Pattern pattern = Pattern.compile(REGEX_NUM_VAL);
-		Matcher matcher = pattern.matcher(ex);
-		String start = "";
-		String length = "";
-		int i = 0; // Z�hlvariable
-		while (matcher.find()) {
-			// Syntaxfehler, wenn es mehr als zwei id�s gibt
-			if (i > 1)
-				throw new Exception(ERR_WRONG_EX + ex);
-			// Id�s haben vorne und hinten je einen Anf�hrungsstrich
-			else if (i == 0)
-				start = matcher.group();
-			else if (i == 1)
-				length = matcher.group();
-			i++;
+	static String[] splitBaseXPtr(String xPtr) {
+		if (xPtr == null)
+			throw new NullPointerException("The given XPointer expression is empty.");
+		try {
+			return (extractBaseXPtr(xPtr));
+		} catch (Exception e) {
+			throw new NullPointerException(ERR_NO_BASE + xPtr);
 		}
-		tar = new XPtrRef(this.base, start.trim(), length.trim());
-		tar.setType(POINTERTYPE.TEXT);
-
-		return (tar);
-	}
-
-	/**
-	 * Liest eine Expression aus, die einer einzelnen Datei entspricht. Der
-	 * Startwert und die Zeichenl�nge werden extrahiert und als ID das
-	 * XPtrRef-Objekt geschrieben.
-	 * 
-	 * @param ex
-	 *            String - einfaches Token
-	 * @return XPtrRef-Objekt
-	 * @throws Exception
-	 */
-	private XPtrRef getFromSimpleXMLFile(String ex) throws Exception {
-		XPtrRef xPtrRef = new XPtrRef(ex, ex);
-		xPtrRef.setType(XPtrRef.POINTERTYPE.XMLFILE);
-		return (xPtrRef);
 	}
 
 	/**
@@ -478,14 +264,7 @@ public class XPtrInterpreter {
 	 *            String - XPointerziel, eventuell mit Basis
 	 */
 	public void setInterpreter(String base, String xPtr) {
-		if (xPtr == null)
-			throw new NullPointerException("The given XPointer expression is empty.");
-		String[] parts;
-		try {
-			parts = this.extractBaseXPtr(xPtr);
-		} catch (Exception e) {
-			throw new NullPointerException(ERR_NO_BASE + xPtr);
-		}
+		String[] parts = splitBaseXPtr(xPtr);
 		// Vector<String[]> entries= extractBaseXPtr(xPtr);
 		// for (String[] parts : entries)
 		{
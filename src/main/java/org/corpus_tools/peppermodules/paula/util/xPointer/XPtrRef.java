@@ -49,6 +49,8 @@ public class XPtrRef {
 
 	private String left = null; // ID-Wert, linke Grenze eines Elementbereichs
 	private String right = null; // ID-Wert, rechte Grenze eines Elementbereichs
+	private int start = -1; // Startposition im Text (nur Textknoten)
+	private int length = -1; // Laenge des Textbereichs (nur Textknoten)
 	// *************************************** Meldungen
 	// ***************************************
 	private static final String MSG_STD = TOOLNAME + ">\t";
@@ -203,6 +205,36 @@ public class XPtrRef {
 		return (this.right);
 	}
 
+	/**
+	 * Sets the start and the length of a string range, which are the parsed
+	 * values of the left and the right border of a pointer of type
+	 * {@link POINTERTYPE#TEXT}.
+	 */
+	void setTextRange(int start, int length) {
+		this.start = start;
+		this.length = length;
+	}
+
+	/**
+	 * Returns the start of the string range of a pointer of type
+	 * {@link POINTERTYPE#TEXT}. The first character has the position 1.
+	 * 
+	 * @return start of the string range or -1, if this is not a text pointer
+	 */
+	public int getStart() {
+		return (this.start);
+	}
+
+	/**
+	 * Returns the length of the string range of a pointer of type
+	 * {@link POINTERTYPE#TEXT}.
+	 * 
+	 * @return length of the string range or -1, if this is not a text pointer
+	 */
+	public int getLength() {
+		return (this.length);
+	}
+
 	/**
 	 * Gibt Informationen ueber dieses Objekt als String zur�ck.
 	 * 
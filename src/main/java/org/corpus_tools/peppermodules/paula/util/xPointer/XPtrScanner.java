@@ -0,0 +1,481 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.util.xPointer;
+
+import org.corpus_tools.peppermodules.paula.util.xPointer.XPtrInterpreter.TOKENTYPE;
+import org.corpus_tools.peppermodules.paula.util.xPointer.XPtrRef.POINTERTYPE;
+
+/**
+ * Scans an XPointer expression in a single pass from left to right, without
+ * regular expressions. The scanner accepts the grammar supported by
+ * {@link XPtrInterpreter}, keywords are case insensitive and whitespaces are
+ * allowed between all tokens:
+ * <ul>
+ * <li>shorthand pointer: <code>#id</code></li>
+ * <li>shorthand pointers separated by whitespaces, the '#' of all but the
+ * first pointer is optional: <code>#id1 #id2 id3</code></li>
+ * <li>id range: <code>#xpointer(id('id1')/range-to(id('id2')))</code></li>
+ * <li>string range: <code>#xpointer(string-range(//body,'',start,length))</code>
+ * </li>
+ * <li>sequence of shorthand pointers, full shorthand pointers
+ * (<code>file.xml#id</code>) and id ranges: <code>(#id1,file.xml#id2)</code>
+ * </li>
+ * <li>a single xml file: <code>file.xml</code></li>
+ * </ul>
+ * The found references are stored as plain strings, a document of null stands
+ * for the base document of the expression.
+ */
+final class XPtrScanner {
+	private static final String KW_XPOINTER = "xpointer";
+	private static final String KW_ID = "id";
+	private static final String KW_RANGE_TO = "range-to";
+	private static final String KW_STRING_RANGE = "string-range";
+	private static final String KW_BODY = "body";
+	private static final String KW_XML_ENDING = ".xml";
+
+	/** the expression to be scanned **/
+	private final String ex;
+	/** current position in {@link #ex} **/
+	private int pos = 0;
+	/** type of the scanned expression **/
+	private TOKENTYPE tokenType = null;
+
+	/** number of found references **/
+	private int numOfRefs = 0;
+	/** document, left (or id) and right value of each found reference **/
+	private String[] values = new String[3];
+	/** type of each found reference **/
+	private POINTERTYPE[] types = new POINTERTYPE[1];
+
+	XPtrScanner(String ex) {
+		this.ex = ex;
+	}
+
+	/**
+	 * Scans the expression and collects the contained references.
+	 *
+	 * @return the type of the expression, {@link TOKENTYPE#ERROR} if it does
+	 *         not follow the supported syntax
+	 */
+	TOKENTYPE scan() {
+		tokenType = scanExpression();
+		if (tokenType == TOKENTYPE.ERROR) {
+			numOfRefs = 0;
+		}
+		return tokenType;
+	}
+
+	private TOKENTYPE scanExpression() {
+		if (ex == null) {
+			return TOKENTYPE.ERROR;
+		}
+		skipWhitespaces();
+		TOKENTYPE retVal = null;
+		if (pos >= ex.length()) {
+			return TOKENTYPE.ERROR;
+		} else if (ex.charAt(pos) == '#') {
+			retVal = scanPointer(true);
+		} else if (ex.charAt(pos) == '(') {
+			retVal = scanSequence();
+		} else {
+			retVal = scanXMLFile();
+		}
+		if (retVal == null) {
+			return TOKENTYPE.ERROR;
+		}
+		skipWhitespaces();
+		return (pos == ex.length()) ? retVal : TOKENTYPE.ERROR;
+	}
+
+	/**
+	 * @return the scanned expression
+	 */
+	String getExpression() {
+		return ex;
+	}
+
+	/**
+	 * @return the type of the expression determined by {@link #scan()}
+	 */
+	TOKENTYPE getTokenType() {
+		return tokenType;
+	}
+
+	/**
+	 * @return number of found references
+	 */
+	int getNumOfRefs() {
+		return numOfRefs;
+	}
+
+	/**
+	 * @return the document of the i-th reference or null, if the reference
+	 *         belongs to the base document
+	 */
+	String getDoc(int i) {
+		return values[3 * i];
+	}
+
+	/**
+	 * @return the id, the left border or the start of the i-th reference
+	 */
+	String getLeft(int i) {
+		return values[3 * i + 1];
+	}
+
+	/**
+	 * @return the right border or the length of the i-th reference or null, if
+	 *         the reference is no range
+	 */
+	String getRight(int i) {
+		return values[3 * i + 2];
+	}
+
+	/**
+	 * @return the type of the i-th reference
+	 */
+	POINTERTYPE getType(int i) {
+		return types[i];
+	}
+
+	private void addRef(String doc, String left, String right, POINTERTYPE type) {
+		if (numOfRefs == types.length) {
+			String[] newValues = new String[values.length * 2];
+			System.arraycopy(values, 0, newValues, 0, values.length);
+			values = newValues;
+			POINTERTYPE[] newTypes = new POINTERTYPE[types.length * 2];
+			System.arraycopy(types, 0, newTypes, 0, types.length);
+			types = newTypes;
+		}
+		values[3 * numOfRefs] = doc;
+		values[3 * numOfRefs + 1] = left;
+		values[3 * numOfRefs + 2] = right;
+		types[numOfRefs] = type;
+		numOfRefs++;
+	}
+
+	// =============================== start: grammar
+	/**
+	 * Scans a pointer starting with '#', which is a shorthand pointer or an
+	 * xpointer function. String ranges are only allowed at top level.
+	 *
+	 * @return the type of the pointer or null, if it is not correct
+	 */
+	private TOKENTYPE scanPointer(boolean topLevel) {
+		pos++;
+		skipWhitespaces();
+		int start = pos;
+		int end = scanIdEnd(start);
+		if (end == start) {
+			return null;
+		}
+		if ((end - start == KW_XPOINTER.length()) && (ex.regionMatches(true, start, KW_XPOINTER, 0, end - start))) {
+			int brace = skipWhitespaces(end);
+			if ((brace < ex.length()) && (ex.charAt(brace) == '(')) {
+				pos = brace + 1;
+				return scanXPointerFunction(topLevel);
+			}
+		}
+		addRef(null, ex.substring(start, end), null, POINTERTYPE.ELEMENT);
+		if (topLevel) {
+			pos = end;
+			return (scanBlankSeparatedPointers()) ? TOKENTYPE.TOKENSEQ : TOKENTYPE.TOKEN;
+		}
+		pos = skipBlankSeparatedIds(end);
+		return TOKENTYPE.TOKEN;
+	}
+
+	/**
+	 * Scans further shorthand pointers separated by whitespaces behind a
+	 * shorthand pointer like '#tok_2 tok_3' in '#tok_1 #tok_2 tok_3'. The '#'
+	 * of these pointers is optional.
+	 *
+	 * @return true, if at least one further pointer was found
+	 */
+	private boolean scanBlankSeparatedPointers() {
+		boolean retVal = false;
+		while (true) {
+			int start = skipWhitespaces(pos);
+			if ((start == pos) || (start >= ex.length())) {
+				break;
+			}
+			if (ex.charAt(start) == '#') {
+				start = skipWhitespaces(start + 1);
+			}
+			int end = scanIdEnd(start);
+			if (end == start) {
+				break;
+			}
+			addRef(null, ex.substring(start, end), null, POINTERTYPE.ELEMENT);
+			pos = end;
+			retVal = true;
+		}
+		return retVal;
+	}
+
+	/**
+	 * Skips further ids separated by blanks behind a shorthand pointer inside
+	 * a sequence like 'tok_2' in '(#tok_1 tok_2)'. Such ids are ignored, since
+	 * blanks are not part of the supported syntax of sequences.
+	 *
+	 * @return the position behind the last skipped id
+	 */
+	private int skipBlankSeparatedIds(int start) {
+		int retVal = start;
+		int i = start;
+		while (i < ex.length()) {
+			while ((i < ex.length()) && (ex.charAt(i) == ' ')) {
+				i++;
+			}
+			int end = scanIdEnd(i);
+			if ((i == retVal) || (end == i)) {
+				break;
+			}
+			retVal = end;
+			i = end;
+		}
+		return retVal;
+	}
+
+	/**
+	 * Scans the content of '#xpointer(...)' behind the opening brace.
+	 */
+	private TOKENTYPE scanXPointerFunction(boolean topLevel) {
+		if (scanKeyword(KW_ID)) {
+			String left = scanIdFunction();
+			if ((left == null) || (!scanChar('/')) || (!scanKeyword(KW_RANGE_TO)) || (!scanBrace())
+					|| (!scanKeyword(KW_ID))) {
+				return null;
+			}
+			String right = scanIdFunction();
+			if ((right == null) || (!scanBrace()) || (!scanChar(')'))) {
+				return null;
+			}
+			addRef(null, left, right, POINTERTYPE.ELEMENT);
+			return TOKENTYPE.TOKENRANGE;
+		} else if ((topLevel) && (scanKeyword(KW_STRING_RANGE))) {
+			if ((!scanChar('(')) || (!scanChar('/')) || (!scanChar('/')) || (!scanKeyword(KW_BODY))
+					|| (!scanChar(',')) || (!scanChar('\'')) || (!scanChar('\'')) || (!scanChar(','))) {
+				return null;
+			}
+			String start = scanNumber();
+			if ((start == null) || (!scanChar(','))) {
+				return null;
+			}
+			String length = scanNumber();
+			if ((length == null) || (!scanChar(')')) || (!scanChar(')'))) {
+				return null;
+			}
+			addRef(null, start, length, POINTERTYPE.TEXT);
+			return TOKENTYPE.STRTOKENRANGE;
+		}
+		return null;
+	}
+
+	/**
+	 * Scans "('id')" behind the keyword 'id'.
+	 *
+	 * @return the id or null, if the function is not correct
+	 */
+	private String scanIdFunction() {
+		if ((!scanChar('(')) || (!scanChar('\''))) {
+			return null;
+		}
+		skipWhitespaces();
+		int start = pos;
+		int end = scanIdEnd(start);
+		if (end == start) {
+			return null;
+		}
+		pos = end;
+		if ((!scanChar('\'')) || (!scanChar(')'))) {
+			return null;
+		}
+		return ex.substring(start, end);
+	}
+
+	/**
+	 * Scans a sequence of pointers enclosed in braces and separated by
+	 * commas.
+	 */
+	private TOKENTYPE scanSequence() {
+		pos++;
+		do {
+			skipWhitespaces();
+			if (pos >= ex.length()) {
+				return null;
+			}
+			if (ex.charAt(pos) == '#') {
+				if (scanPointer(false) == null) {
+					return null;
+				}
+			} else if (!scanFullShorthandPointer()) {
+				return null;
+			}
+		} while (scanChar(','));
+		return (scanChar(')')) ? TOKENTYPE.TOKENSEQ : null;
+	}
+
+	/**
+	 * Scans a shorthand pointer preceded by an xml file 'file.xml#id'.
+	 */
+	private boolean scanFullShorthandPointer() {
+		int sharp = pos;
+		while ((sharp < ex.length()) && (ex.charAt(sharp) != '#')) {
+			char c = ex.charAt(sharp);
+			if ((c == ',') || (c == '(') || (c == ')')) {
+				return false;
+			}
+			sharp++;
+		}
+		if (sharp >= ex.length()) {
+			return false;
+		}
+		String doc = ex.substring(pos, sharp).trim();
+		if ((doc.length() <= KW_XML_ENDING.length()) || (!doc.regionMatches(true,
+				doc.length() - KW_XML_ENDING.length(), KW_XML_ENDING, 0, KW_XML_ENDING.length()))) {
+			return false;
+		}
+		pos = skipWhitespaces(sharp + 1);
+		int end = scanIdEnd(pos);
+		if (end == pos) {
+			return false;
+		}
+		addRef(doc, ex.substring(pos, end), null, POINTERTYPE.ELEMENT);
+		pos = end;
+		return true;
+	}
+
+	/**
+	 * Scans a reference to an xml file, which must not contain a '#'. Blanks
+	 * are ignored when checking the ending '.xml'.
+	 */
+	private TOKENTYPE scanXMLFile() {
+		if (ex.indexOf('#') >= 0) {
+			return null;
+		}
+		int numOfChars = 0;
+		int matched = 0;
+		for (int i = ex.length() - 1; i >= 0; i--) {
+			char c = ex.charAt(i);
+			if (c == ' ') {
+				continue;
+			}
+			if (matched < KW_XML_ENDING.length()) {
+				if (Character.toLowerCase(c) != KW_XML_ENDING.charAt(KW_XML_ENDING.length() - 1 - matched)) {
+					return null;
+				}
+				matched++;
+			}
+			numOfChars++;
+		}
+		if (numOfChars <= KW_XML_ENDING.length()) {
+			return null;
+		}
+		pos = ex.length();
+		addRef(ex, ex, null, POINTERTYPE.XMLFILE);
+		return TOKENTYPE.SIMPLE_XML_FILE;
+	}
+	// =============================== end: grammar
+
+	// =============================== start: tokens
+	/**
+	 * Skips whitespaces and the given keyword (case insensitive).
+	 */
+	private boolean scanKeyword(String keyword) {
+		skipWhitespaces();
+		int end = scanIdEnd(pos);
+		if ((end - pos != keyword.length()) || (!ex.regionMatches(true, pos, keyword, 0, keyword.length()))) {
+			return false;
+		}
+		pos = end;
+		return true;
+	}
+
+	/**
+	 * Skips whitespaces and the given character.
+	 */
+	private boolean scanChar(char c) {
+		skipWhitespaces();
+		if ((pos < ex.length()) && (ex.charAt(pos) == c)) {
+			pos++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Skips whitespaces and an opening or closing brace, both are accepted
+	 * around the arguments of range-to.
+	 */
+	private boolean scanBrace() {
+		return (scanChar('(')) || (scanChar(')'));
+	}
+
+	/**
+	 * Skips whitespaces and returns the following number.
+	 */
+	private String scanNumber() {
+		skipWhitespaces();
+		int start = pos;
+		while ((pos < ex.length()) && (ex.charAt(pos) >= '0') && (ex.charAt(pos) <= '9')) {
+			pos++;
+		}
+		return (pos > start) ? ex.substring(start, pos) : null;
+	}
+
+	/**
+	 * @return the position behind the id starting at the given position
+	 */
+	private int scanIdEnd(int start) {
+		int i = start;
+		while ((i < ex.length()) && (isIdChar(ex.charAt(i)))) {
+			i++;
+		}
+		return i;
+	}
+
+	private void skipWhitespaces() {
+		pos = skipWhitespaces(pos);
+	}
+
+	private int skipWhitespaces(int start) {
+		int i = start;
+		while ((i < ex.length()) && (isWhitespace(ex.charAt(i)))) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * @return true, if the character can be part of an id: letters, digits,
+	 *         '_', '-' and '.'
+	 */
+	static boolean isIdChar(char c) {
+		return ((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z')) || ((c >= '0') && (c <= '9')) || (c == '_')
+				|| (c == '-') || (c == '.');
+	}
+
+	/**
+	 * @return true, if the character is a whitespace in the sense of '\s'
+	 */
+	static boolean isWhitespace(char c) {
+		return (c == ' ') || (c == '\t') || (c == '\n') || (c == '\u000B') || (c == '\f') || (c == '\r');
+	}
+	// =============================== end: tokens
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.corpus_tools.peppermodules.paula.readers.PAULAStructReader;
+import org.corpus_tools.peppermodules.paula.util.xPointer.XPointer;
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SDocument;
+import org.corpus_tools.salt.common.SDominanceRelation;
+import org.corpus_tools.salt.common.SToken;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PAULA2SaltMapperTest {
+
+	private PAULA2SaltMapper fixture = null;
+
+	@Before
+	public void beforeEach() {
+		fixture = new PAULA2SaltMapper();
+		fixture.setProperties(new PAULAImporterProperties());
+		SDocument document = SaltFactory.createSDocument();
+		document.setDocumentGraph(SaltFactory.createSDocumentGraph());
+		fixture.setDocument(document);
+		fixture.setResourceURI(URI.createFileURI(new File("doc").getAbsolutePath()));
+
+		fixture.paulaTEXTConnector(new File("doc.text.xml"), "doc.text", "a b");
+		File tokFile = new File("doc.tok.xml");
+		fixture.paulaMARK_TOKConnector(tokFile, "doc.tok", "tok", "doc.text.xml", "tok_1",
+				new XPointer("#xpointer(string-range(//body,'',1,1))"), null);
+		fixture.paulaMARK_TOKConnector(tokFile, "doc.tok", "tok", "doc.text.xml", "tok_2",
+				new XPointer("#xpointer(string-range(//body,'',3,1))"), null);
+	}
+
+	/**
+	 * Checks that the dominance relations of a struct file are still created,
+	 * when another struct file is finished while they are pending, as it
+	 * happens when struct files are read nested.
+	 */
+	@Test
+	public void whenTwoStructFilesArePending_thenRelationsOfBothAreCreated() {
+		File outerFile = new File("doc.outer.xml");
+		File innerFile = new File("doc.inner.xml");
+		fixture.paulaSTRUCTConnector(outerFile, "doc.outer", "struct", "doc.tok.xml", "outer_1", "outer_rel_1",
+				new XPointer("#tok_1"), "edge");
+		fixture.paulaSTRUCTConnector(innerFile, "doc.inner", "struct", "doc.tok.xml", "inner_1", "inner_rel_1",
+				new XPointer("#tok_2"), "edge");
+
+		fixture.endDocument(new PAULAStructReader(), innerFile);
+		fixture.endDocument(new PAULAStructReader(), outerFile);
+
+		List<String> relations = new ArrayList<>();
+		for (SDominanceRelation rel : fixture.getDocument().getDocumentGraph().getDominanceRelations()) {
+			relations.add(rel.getName());
+		}
+		Collections.sort(relations);
+		assertEquals(Arrays.asList("inner_rel_1", "outer_rel_1"), relations);
+	}
+
+	/**
+	 * Checks that each dominance relation of a struct file is resolved
+	 * against its own xml-base, when the relations of the file have different
+	 * xml-bases.
+	 */
+	@Test
+	public void whenRelationsHaveDifferentXmlBases_thenEachTargetIsFound() {
+		File structFile = new File("doc.struct.xml");
+		fixture.paulaSTRUCTConnector(structFile, "doc.struct", "struct", "doc.tok.xml", "struct_1", "rel_1",
+				new XPointer("#tok_2"), "edge");
+		fixture.paulaSTRUCTConnector(structFile, "doc.struct", "struct", null, "struct_2", "rel_2",
+				new XPointer("doc.tok.xml#tok_1"), "edge");
+
+		fixture.endDocument(new PAULAStructReader(), structFile);
+
+		List<String> targets = new ArrayList<>();
+		for (SDominanceRelation rel : fixture.getDocument().getDocumentGraph().getDominanceRelations()) {
+			targets.add(rel.getName() + "->" + rel.getTarget().getName());
+		}
+		Collections.sort(targets);
+		assertEquals(Arrays.asList("rel_1->tok_2", "rel_2->tok_1"), targets);
+	}
+
+	/**
+	 * Checks that all parts of a paula-type but the last one form the
+	 * namespace of the annotation.
+	 */
+	@Test
+	public void whenTypeHasSeveralDots_thenAllButLastPartAreNamespace() {
+		File featFile = new File("doc.tok_pos.xml");
+		fixture.paulaFEATConnector(featFile, "doc.tok_pos", "a.b.c.pos", "doc.tok.xml", null,
+				new XPointer("#tok_1"), null, "NN", null, null);
+
+		SToken token = fixture.getDocument().getDocumentGraph().getTokens().get(0);
+		assertEquals("a.b.c", token.getAnnotation("a.b.c::pos").getNamespace());
+	}
+
+	/**
+	 * Checks that resolving the hrefs of a list at once gives the same
+	 * elements as resolving them one by one.
+	 */
+	@Test
+	public void whenHrefsAreResolvedAtOnce_thenIdsAreSameAsResolvedOneByOne() {
+		List<XPointer> hrefs = Arrays.asList(new XPointer("#tok_1"),
+				new XPointer("#xpointer(id('tok_1')/range-to(id('tok_2')))"), new XPointer("(#tok_2,#tok_1)"));
+
+		List<Collection<PAULAElementKey>> atOnce = fixture.getPAULAElementIds("doc.tok.xml", hrefs);
+
+		assertEquals(hrefs.size(), atOnce.size());
+		for (int i = 0; i < hrefs.size(); i++) {
+			assertEquals(new ArrayList<>(fixture.getPAULAElementIds("doc.tok.xml", hrefs.get(i))),
+					new ArrayList<>(atOnce.get(i)));
+		}
+		assertEquals(2, atOnce.get(1).size());
+	}
+
+	/**
+	 * Checks that the feats of a featList passed at once annotate the same
+	 * elements as passed one by one.
+	 */
+	@Test
+	public void whenFeatsArePassedAtOnce_thenEachAnnotatesItsElements() {
+		File featFile = new File("doc.tok_pos.xml");
+		fixture.paulaFEATConnector(featFile, "doc.tok_pos", "x.pos", "doc.tok.xml",
+				Arrays.asList(new XPointer("#tok_1"), new XPointer("#tok_2")), Arrays.asList("DT", "NN"));
+
+		List<SToken> tokens = fixture.getDocument().getDocumentGraph().getSortedTokenByText();
+		assertEquals("DT", tokens.get(0).getAnnotation("x::pos").getValue());
+		assertEquals("NN", tokens.get(1).getAnnotation("x::pos").getValue());
+	}
+}
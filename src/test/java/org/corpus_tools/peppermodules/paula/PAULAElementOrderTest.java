@@ -0,0 +1,93 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PAULAElementOrderTest {
+
+	private PAULAElementOrder fixture = null;
+
+	@Before
+	public void beforeEach() {
+		fixture = new PAULAElementOrder();
+		for (int i = 1; i <= 5; i++) {
+			fixture.add(key("tok_" + i));
+		}
+	}
+
+	private static PAULAElementKey key(String id) {
+		return new PAULAElementKey("doc.tok.xml", id);
+	}
+
+	private List<PAULAElementKey> getRange(String left, String right) {
+		List<PAULAElementKey> range = new ArrayList<>();
+		fixture.getRange(key(left), key(right), range);
+		return range;
+	}
+
+	@Test
+	public void whenRangeIsContained_thenReturnElementsBetweenBorders() {
+		assertEquals(Arrays.asList(key("tok_2"), key("tok_3"), key("tok_4")), getRange("tok_2", "tok_4"));
+		assertEquals(Arrays.asList(key("tok_3")), getRange("tok_3", "tok_3"));
+	}
+
+	@Test
+	public void whenBordersDifferInCase_thenReturnElementsBetweenBorders() {
+		assertEquals(Arrays.asList(key("tok_4"), key("tok_5")), getRange("TOK_4", "Tok_5"));
+	}
+
+	@Test
+	public void whenElementsDifferOnlyInCase_thenFirstElementIgnoringCaseIsBorder() {
+		fixture = new PAULAElementOrder();
+		fixture.add(key("Tok_1"));
+		fixture.add(key("tok_1"));
+		fixture.add(key("tok_2"));
+		assertEquals(Arrays.asList(key("Tok_1"), key("tok_1"), key("tok_2")), getRange("tok_1", "tok_2"));
+		assertTrue(fixture.contains(key("tok_1")));
+		assertFalse(fixture.contains(key("TOK_1")));
+	}
+
+	@Test
+	public void whenRightBorderIsMissing_thenRangeEndsWithLastElement() {
+		assertEquals(Arrays.asList(key("tok_4"), key("tok_5")), getRange("tok_4", "tok_9"));
+	}
+
+	@Test
+	public void whenLeftBorderIsMissingOrBehindRightBorder_thenRangeIsEmpty() {
+		assertTrue(getRange("tok_9", "tok_2").isEmpty());
+		assertTrue(getRange("tok_4", "tok_2").isEmpty());
+	}
+
+	@Test
+	public void whenElementIsAdded_thenItIsContained() {
+		assertFalse(fixture.contains(key("tok_6")));
+		fixture.add(key("tok_6"));
+		assertTrue(fixture.contains(key("tok_6")));
+		assertEquals(6, fixture.size());
+	}
+}
@@ -0,0 +1,306 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SDocument;
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.corpus_tools.salt.common.SToken;
+import org.corpus_tools.salt.core.SAnnotation;
+import org.corpus_tools.salt.core.SNode;
+import org.corpus_tools.salt.core.SRelation;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Test;
+
+public class PAULAFileDelegatorTest {
+
+	private static final String SELF_TEST_CORPUS = "src/main/resources/selfTests/paulaImporter/in/rootCorpus/";
+
+	/**
+	 * Maps the paula document in the given folder and returns the created
+	 * document graph.
+	 */
+	public static SDocumentGraph mapDocument(File documentPath, PAULAImporterProperties props) {
+		PAULA2SaltMapper mapper = new PAULA2SaltMapper();
+		mapper.setProperties(props);
+		mapper.setPAULA_FILE_ENDINGS(new String[] { "xml", "paula" });
+		SDocument document = SaltFactory.createSDocument();
+		document.setName(documentPath.getName());
+		mapper.setDocument(document);
+		mapper.setResourceURI(URI.createFileURI(documentPath.getAbsolutePath()));
+		mapper.mapSDocument();
+		return document.getDocumentGraph();
+	}
+
+	/**
+	 * Creates an order independent description of the given graph, containing
+	 * all nodes and relations with their names, types and annotations.
+	 */
+	public static List<String> describe(SDocumentGraph graph) {
+		List<String> retVal = new ArrayList<>();
+		for (SNode node : graph.getNodes()) {
+			retVal.add(node.getClass().getSimpleName() + " " + node.getName() + " " + describeAnnotations(node));
+		}
+		for (SRelation<?, ?> rel : graph.getRelations()) {
+			retVal.add(rel.getClass().getSimpleName() + " " + rel.getName() + " " + rel.getType() + " "
+					+ ((SNode) rel.getSource()).getName() + "->" + ((SNode) rel.getTarget()).getName() + " "
+					+ describeAnnotations(rel));
+		}
+		Collections.sort(retVal);
+		return retVal;
+	}
+
+	private static String describeAnnotations(org.corpus_tools.salt.core.SAnnotationContainer container) {
+		List<String> annos = new ArrayList<>();
+		for (SAnnotation anno : container.getAnnotations()) {
+			annos.add(anno.getQName() + "=" + anno.getValue());
+		}
+		Collections.sort(annos);
+		return annos.toString();
+	}
+
+	/** the documents of the self test corpus **/
+	private static final String[] SELF_TEST_DOCUMENTS = { "subCorpus1/doc1", "subCorpus1/doc2", "subCorpus2/doc3",
+			"subCorpus2/doc4" };
+
+	/**
+	 * Maps the document in expectedPath with the default properties and the
+	 * document in actualPath with the passed properties and checks that both
+	 * result in the same graph.
+	 */
+	private static void assertSameAsDefault(File expectedPath, File actualPath, PAULAImporterProperties props) {
+		List<String> expected = describe(mapDocument(expectedPath, new PAULAImporterProperties()));
+		assertFalse(expected.isEmpty());
+		assertEquals(actualPath.getPath(), expected, describe(mapDocument(actualPath, props)));
+	}
+
+	/**
+	 * Checks that each document of the self test corpus results in the same
+	 * graph with the passed properties as with the default properties.
+	 */
+	private static void assertSameAsDefault(PAULAImporterProperties props) {
+		for (String document : SELF_TEST_DOCUMENTS) {
+			File documentPath = new File(SELF_TEST_CORPUS + document);
+			assertSameAsDefault(documentPath, documentPath, props);
+		}
+	}
+
+	/**
+	 * Checks that reading the files of a document in parallel results in the
+	 * same graph as reading them one after another.
+	 */
+	@Test
+	public void whenReadingFilesInParallel_thenResultIsSameAsSequential() {
+		PAULAImporterProperties props = new PAULAImporterProperties();
+		props.setPropertyValue(PAULAImporterProperties.PROP_NUM_OF_FILE_THREADS, 4);
+		assertSameAsDefault(props);
+	}
+
+	/**
+	 * Checks that reading the files of a document with the StAX engine results
+	 * in the same graph as reading them with SAX, sequentially and in parallel.
+	 */
+	@Test
+	public void whenReadingFilesWithStAX_thenResultIsSameAsWithSAX() {
+		for (int numOfThreads : new int[] { 1, 4 }) {
+			PAULAImporterProperties props = new PAULAImporterProperties();
+			props.setPropertyValue(PAULAImporterProperties.PROP_PARSER_ENGINE, "stax");
+			props.setPropertyValue(PAULAImporterProperties.PROP_NUM_OF_FILE_THREADS, numOfThreads);
+			assertSameAsDefault(props);
+		}
+	}
+
+	/**
+	 * Checks that caching resolved hrefs does not change the mapping result.
+	 */
+	@Test
+	public void whenXPointerCacheIsDisabled_thenResultIsSame() {
+		PAULAImporterProperties props = new PAULAImporterProperties();
+		props.setPropertyValue(PAULAImporterProperties.PROP_XPOINTER_CACHE_SIZE, 0);
+		assertSameAsDefault(props);
+	}
+
+	/**
+	 * Checks that a document can be read, even if the dtds are not contained
+	 * in the document's folder, since the dtds are resolved from the bundled
+	 * resources.
+	 */
+	@Test
+	public void whenDocumentFolderContainsNoDTDs_thenResultIsSameAsWithDTDs() throws IOException {
+		File documentPath = new File(SELF_TEST_CORPUS + "subCorpus1/doc1");
+		File copyPath = Files.createTempDirectory("paulaWithoutDTD").resolve("doc1").toFile();
+		copyPath.mkdirs();
+		for (File file : documentPath.listFiles()) {
+			if (file.getName().endsWith(".xml")) {
+				FileUtils.copyFileToDirectory(file, copyPath);
+			}
+		}
+		try {
+			assertSameAsDefault(documentPath, copyPath, new PAULAImporterProperties());
+		} finally {
+			FileUtils.deleteDirectory(copyPath.getParentFile());
+		}
+	}
+
+	/**
+	 * Checks that files in other encodings than UTF-8 are read correctly, the
+	 * encoding is detected from the byte order mark or the xml declaration.
+	 */
+	@Test
+	public void whenFilesAreNotEncodedInUTF8_thenResultIsSameAsWithUTF8() throws IOException {
+		File documentPath = new File(SELF_TEST_CORPUS + "subCorpus1/doc1");
+		File copyPath = Files.createTempDirectory("paulaEncoding").resolve("doc1").toFile();
+		FileUtils.copyDirectory(documentPath, copyPath);
+		reencode(new File(copyPath, "doc1.text.xml"), "UTF-16");
+		reencode(new File(copyPath, "morphology.doc1.tok_lemma.xml"), "ISO-8859-1");
+		try {
+			assertSameAsDefault(documentPath, copyPath, new PAULAImporterProperties());
+		} finally {
+			FileUtils.deleteDirectory(copyPath.getParentFile());
+		}
+	}
+
+	private static void reencode(File file, String encoding) throws IOException {
+		String content = FileUtils.readFileToString(file, "UTF-8").replaceFirst("encoding=['\"][^'\"]*['\"]",
+				"encoding='" + encoding + "'");
+		FileUtils.writeStringToFile(file, content, encoding);
+	}
+
+	/**
+	 * Checks that files compressed with gzip are read and referred by their
+	 * name without '.gz', with SAX and with StAX.
+	 */
+	@Test
+	public void whenFilesAreCompressed_thenResultIsSameAsUncompressed() throws IOException {
+		File documentPath = new File(SELF_TEST_CORPUS + "subCorpus1/doc1");
+		File copyPath = Files.createTempDirectory("paulaCompressed").resolve("doc1").toFile();
+		FileUtils.copyDirectory(documentPath, copyPath);
+		for (String fileName : new String[] { "doc1.text.xml", "doc1.tok.xml", "morphology.doc1.tok_pos.xml",
+				"syntax.doc1.struct.xml" }) {
+			File file = new File(copyPath, fileName);
+			try (OutputStream out = new GZIPOutputStream(new FileOutputStream(file.getPath() + ".gz"))) {
+				FileUtils.copyFile(file, out);
+			}
+			file.delete();
+		}
+		try {
+			assertSameAsDefault(documentPath, copyPath, new PAULAImporterProperties());
+
+			PAULAImporterProperties staxProps = new PAULAImporterProperties();
+			staxProps.setPropertyValue(PAULAImporterProperties.PROP_PARSER_ENGINE, "stax");
+			assertSameAsDefault(documentPath, copyPath, staxProps);
+		} finally {
+			FileUtils.deleteDirectory(copyPath.getParentFile());
+		}
+	}
+
+	/**
+	 * Checks that a file referred by xml:base, which does not exist (for
+	 * instance xml:base="meta"), is skipped and that the referring file is read
+	 * anyway, with SAX and with StAX.
+	 */
+	@Test
+	public void whenReferredFileDoesNotExist_thenReferringFileIsRead() throws IOException {
+		File documentPath = Files.createTempDirectory("paulaMissingBase").resolve("doc").toFile();
+		createDocumentWithManyFiles(documentPath, 1);
+		FileUtils.writeStringToFile(new File(documentPath, "doc.meta_lang.xml"),
+				"<?xml version='1.0' encoding='UTF-8'?><!DOCTYPE paula SYSTEM \"paula_feat.dtd\">\n"
+						+ "<paula version=\"1.1\"><header paula_id=\"doc.meta_lang\"/>"
+						+ "<featList xmlns:xlink=\"http://www.w3.org/1999/xlink\" type=\"lang\" xml:base=\"meta\">"
+						+ "<feat xlink:href=\"#anno_1\" value=\"eng\"/></featList></paula>",
+				"UTF-8");
+		try {
+			for (String engine : new String[] { "sax", "stax" }) {
+				PAULAImporterProperties props = new PAULAImporterProperties();
+				props.setPropertyValue(PAULAImporterProperties.PROP_PARSER_ENGINE, engine);
+				SDocumentGraph graph = mapDocument(documentPath, props);
+				assertEquals(engine, 2, graph.getTokens().size());
+				assertEquals(engine, "eng", graph.getDocument().getMetaAnnotation("lang").getValue());
+			}
+		} finally {
+			FileUtils.deleteDirectory(documentPath.getParentFile());
+		}
+	}
+
+	/**
+	 * Writes a synthetic document to the given folder, consisting of a text,
+	 * two tokens and the given number of annotation files, each annotating one
+	 * of the tokens.
+	 */
+	public static void createDocumentWithManyFiles(File documentPath, int numOfFiles) throws IOException {
+		documentPath.mkdirs();
+		FileUtils.writeStringToFile(new File(documentPath, "doc.text.xml"),
+				"<?xml version='1.0' encoding='UTF-8'?><!DOCTYPE paula SYSTEM \"paula_text.dtd\">\n"
+						+ "<paula version=\"1.1\"><header paula_id=\"doc.text\"/><body>a b</body></paula>",
+				"UTF-8");
+		FileUtils.writeStringToFile(new File(documentPath, "doc.tok.xml"),
+				"<?xml version='1.0' encoding='UTF-8'?><!DOCTYPE paula SYSTEM \"paula_mark.dtd\">\n"
+						+ "<paula version=\"1.1\"><header paula_id=\"doc.tok\"/>"
+						+ "<markList xmlns:xlink=\"http://www.w3.org/1999/xlink\" type=\"tok\" xml:base=\"doc.text.xml\">"
+						+ "<mark id=\"t1\" xlink:href=\"#xpointer(string-range(//body,'',1,1))\"/>"
+						+ "<mark id=\"t2\" xlink:href=\"#xpointer(string-range(//body,'',3,1))\"/>"
+						+ "</markList></paula>",
+				"UTF-8");
+		for (int i = 0; i < numOfFiles; i++) {
+			FileUtils.writeStringToFile(new File(documentPath, "doc.tok_a" + i + ".xml"),
+					"<?xml version='1.0' encoding='UTF-8'?><!DOCTYPE paula SYSTEM \"paula_feat.dtd\">\n"
+							+ "<paula version=\"1.1\"><header paula_id=\"doc.tok_a" + i + "\"/>"
+							+ "<featList xmlns:xlink=\"http://www.w3.org/1999/xlink\" type=\"a" + i
+							+ "\" xml:base=\"doc.tok.xml\"><feat xlink:href=\"#t" + (i % 2 + 1) + "\" value=\"v" + i
+							+ "\"/></featList></paula>",
+					"UTF-8");
+		}
+	}
+
+	/**
+	 * Checks that all files of a document consisting of many annotation files
+	 * are read. How the reading time grows with the number of files is
+	 * measured by the benchmark PAULAFileDelegatorBenchmark in src/jmh.
+	 */
+	@Test
+	public void whenDocumentContainsManyFiles_thenAllFilesAreRead() throws IOException {
+		final int numOfFiles = 300;
+		File documentPath = Files.createTempDirectory("paulaManyFiles").resolve("doc").toFile();
+		createDocumentWithManyFiles(documentPath, numOfFiles);
+		try {
+			SDocumentGraph graph = mapDocument(documentPath, new PAULAImporterProperties());
+			assertEquals(2, graph.getTokens().size());
+			int numOfAnnotations = 0;
+			for (SToken token : graph.getTokens()) {
+				numOfAnnotations += token.getAnnotations().size();
+			}
+			assertEquals(numOfFiles, numOfAnnotations);
+		} finally {
+			FileUtils.deleteDirectory(documentPath.getParentFile());
+		}
+	}
+}
@@ -17,9 +17,36 @@
  */
 package org.corpus_tools.peppermodules.paula;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.corpus_tools.pepper.common.CorpusDesc;
 import org.corpus_tools.pepper.common.FormatDesc;
 import org.corpus_tools.pepper.testFramework.PepperImporterTest;
+import org.corpus_tools.peppermodules.paula.util.PAULAArchive;
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SaltProject;
+import org.corpus_tools.salt.common.SCorpus;
+import org.corpus_tools.salt.common.SDocument;
+import org.eclipse.emf.common.util.URI;
 import org.junit.Before;
+import org.junit.Test;
 
 public class PAULAImporterTest extends PepperImporterTest {
 
@@ -29,4 +56,121 @@ public class PAULAImporterTest extends PepperImporterTest {
 		addFormatWhichShouldBeSupported(new FormatDesc.FormatDescBuilder().withName(PAULAImporter.FORMAT_NAME)
 				.withVersion(PAULAImporter.FORMAT_VERSION).build());
 	}
+
+	private static final File SELF_TEST_CORPUS = new File("src/main/resources/selfTests/paulaImporter/in/rootCorpus/");
+
+	/**
+	 * Imports the corpus at the passed location and returns a description of
+	 * the corpus structure and all document graphs.
+	 */
+	private List<String> importCorpus(File corpusPath) {
+		setFixture(new PAULAImporter());
+		CorpusDesc corpusDesc = new CorpusDesc();
+		corpusDesc.setCorpusPath(URI.createFileURI(corpusPath.getAbsolutePath()));
+		getFixture().setCorpusDesc(corpusDesc);
+		start();
+
+		List<String> retVal = new ArrayList<String>();
+		for (SCorpus corpus : getFixture().getCorpusGraph().getCorpora()) {
+			retVal.add("corpus " + corpus.getId());
+		}
+		Map<String, List<String>> documents = new TreeMap<String, List<String>>();
+		for (SDocument document : getFixture().getCorpusGraph().getDocuments()) {
+			documents.put(document.getId(), PAULAFileDelegatorTest.describe(document.getDocumentGraph()));
+		}
+		for (Map.Entry<String, List<String>> document : documents.entrySet()) {
+			retVal.add("document " + document.getKey());
+			retVal.addAll(document.getValue());
+		}
+		return retVal;
+	}
+
+	/**
+	 * Adds the content of the passed folder to the archive, the entries are
+	 * prefixed by the passed prefix.
+	 */
+	public static void zip(File folder, String prefix, ZipOutputStream out) throws IOException {
+		File[] files = folder.listFiles();
+		Arrays.sort(files);
+		for (File file : files) {
+			if (file.isDirectory()) {
+				out.putNextEntry(new ZipEntry(prefix + file.getName() + "/"));
+				out.closeEntry();
+				zip(file, prefix + file.getName() + "/", out);
+			} else {
+				out.putNextEntry(new ZipEntry(prefix + file.getName()));
+				FileUtils.copyFile(file, out);
+				out.closeEntry();
+			}
+		}
+	}
+
+	/**
+	 * Checks that a corpus stored in a ZIP archive results in the same corpus
+	 * structure and documents as the extracted corpus.
+	 */
+	@Test
+	public void whenImportingZipArchive_thenResultIsSameAsForFolder() throws IOException {
+		File tmpFolder = Files.createTempDirectory("paulaArchive").toFile();
+		File archive = new File(tmpFolder, SELF_TEST_CORPUS.getName() + ".zip");
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(archive))) {
+			zip(SELF_TEST_CORPUS, "", out);
+		}
+		try {
+			assertEquals(1.0, getFixture().isImportable(URI.createFileURI(archive.getAbsolutePath())), 0.0);
+
+			List<String> expected = importCorpus(SELF_TEST_CORPUS);
+			List<String> actual = importCorpus(archive);
+			assertTrue(expected.contains("document salt:/rootCorpus/subCorpus1/doc1"));
+			assertEquals(expected, actual);
+		} finally {
+			FileUtils.deleteDirectory(tmpFolder);
+		}
+	}
+
+	/**
+	 * Checks that an importer finishing its import does not close an archive,
+	 * which is still read by another importer.
+	 */
+	@Test
+	public void whenOtherImporterEnds_thenArchiveIsStillReadable() throws IOException {
+		File tmpFolder = Files.createTempDirectory("paulaArchive").toFile();
+		File archive = new File(tmpFolder, SELF_TEST_CORPUS.getName() + ".zip");
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(archive))) {
+			zip(SELF_TEST_CORPUS, "", out);
+		}
+		try {
+			PAULAImporter otherImporter = new PAULAImporter();
+			CorpusDesc corpusDesc = new CorpusDesc();
+			corpusDesc.setCorpusPath(URI.createFileURI(archive.getAbsolutePath()));
+			otherImporter.setCorpusDesc(corpusDesc);
+			SaltProject saltProject = SaltFactory.createSaltProject();
+			otherImporter.setSaltProject(saltProject);
+			otherImporter.importCorpusStructure(saltProject.createCorpusGraph());
+			PAULAArchive openedArchive = lookUpArchive(archive);
+
+			importCorpus(archive);
+
+			File entry = new File(archive, "subCorpus1/doc1/doc1.text.xml");
+			try (InputStream in = PAULAArchive.openInputStream(entry)) {
+				assertTrue(in.read() != -1);
+			}
+			assertSame(openedArchive, lookUpArchive(archive));
+
+			otherImporter.end();
+			assertNotSame(openedArchive, lookUpArchive(archive));
+		} finally {
+			FileUtils.deleteDirectory(tmpFolder);
+		}
+	}
+
+	/**
+	 * Returns the archive for the passed archive file, which is the one
+	 * already opened, if another user acquired it.
+	 */
+	private static PAULAArchive lookUpArchive(File archive) {
+		PAULAArchive retVal = PAULAArchive.acquire(archive);
+		PAULAArchive.release(retVal);
+		return retVal;
+	}
 }
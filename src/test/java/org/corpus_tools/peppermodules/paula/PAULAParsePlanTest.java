@@ -0,0 +1,82 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.corpus_tools.peppermodules.paula.PAULAParsePlan.Entry;
+import org.junit.Test;
+
+public class PAULAParsePlanTest {
+
+	private static final File DOC1 = new File("src/main/resources/selfTests/paulaImporter/in/rootCorpus/subCorpus1/doc1/");
+
+	private static List<File> getPaulaFiles(File folder) {
+		List<File> retVal = new ArrayList<>();
+		File[] files = folder.listFiles();
+		Arrays.sort(files);
+		for (File file : files) {
+			if (file.getName().endsWith(".xml")) {
+				retVal.add(file.getAbsoluteFile());
+			}
+		}
+		return retVal;
+	}
+
+	private static Entry getEntry(PAULAParsePlan plan, String fileName) {
+		for (Entry entry : plan.getEntries()) {
+			if (entry.getPaulaFile().getName().equals(fileName)) {
+				return entry;
+			}
+		}
+		throw new AssertionError("no entry for " + fileName + " in " + plan.getEntries());
+	}
+
+	@Test
+	public void whenScanningDocument_thenHeaderInformationIsExtracted() {
+		PAULAParsePlan plan = PAULAParsePlan.create(DOC1.getAbsoluteFile(), getPaulaFiles(DOC1));
+		Entry tok = getEntry(plan, "doc1.tok.xml");
+		assertEquals("paula_mark.dtd", tok.getDtd());
+		assertEquals("doc1.tok", tok.getPaulaId());
+		assertEquals("doc1.text.xml", tok.getXmlBase());
+		assertEquals("tok", tok.getPaulaType());
+		assertEquals(getEntry(plan, "doc1.text.xml"), tok.getBaseEntry());
+	}
+
+	@Test
+	public void whenScanningDocument_thenBaseFilesAreOrderedBeforeReferringFiles() {
+		PAULAParsePlan plan = PAULAParsePlan.create(DOC1.getAbsoluteFile(), getPaulaFiles(DOC1));
+		List<File> order = plan.getPaulaFiles();
+		assertEquals(getPaulaFiles(DOC1).size(), order.size());
+		for (Entry entry : plan.getEntries()) {
+			if (entry.getBaseEntry() != null) {
+				assertTrue(entry + " must be read after " + entry.getBaseEntry(),
+						order.indexOf(entry.getBaseEntry().getPaulaFile()) < order.indexOf(entry.getPaulaFile()));
+			}
+		}
+		// struct files refer to tokens without xml:base
+		assertTrue(getEntry(plan, "doc1.tok.xml").getLevel() < getEntry(plan, "syntax.doc1.struct.xml").getLevel());
+		assertEquals("doc1.text.xml", order.get(0).getName());
+	}
+}
@@ -21,14 +21,23 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.zip.ZipOutputStream;
 
+import org.apache.commons.io.FileUtils;
 import org.corpus_tools.pepper.common.CorpusDesc;
+import org.corpus_tools.pepper.modules.PepperModuleProperty;
 import org.corpus_tools.pepper.testFramework.PepperImporterTest;
 import org.corpus_tools.peppermodules.paula.PAULAImporter;
+import org.corpus_tools.peppermodules.paula.PAULAImporterProperties;
+import org.corpus_tools.peppermodules.paula.PAULAImporterTest;
 import org.corpus_tools.salt.common.SDocumentGraph;
 import org.corpus_tools.salt.common.SMedialDS;
 import org.corpus_tools.salt.common.SMedialRelation;
 import org.corpus_tools.salt.common.SSpan;
+import org.corpus_tools.salt.core.SAnnotation;
 import org.eclipse.emf.common.util.URI;
 import org.junit.Before;
 import org.junit.Test;
@@ -49,20 +58,11 @@ public class AudioDataTest extends PepperImporterTest {
 	 */
 	@Test
 	public void testAudioData() {
-		File testFolder = new File(getTestResources() + "audioData3/");
-		URI testFolderURI = URI.createFileURI(testFolder.getAbsolutePath());
-
-		// creating and setting corpus definition
-		CorpusDesc corpDef = new CorpusDesc();
-		corpDef.setCorpusPath(testFolderURI).getFormatDesc().setFormatName("xml").setFormatVersion("1.0");
-		getFixture().setCorpusDesc(corpDef);
-
-		// runs the PepperModule
-		this.start();
+		startAudioData();
 		SDocumentGraph graph = getFixture().getCorpusGraph().getDocuments().get(0).getDocumentGraph();
 		assertEquals(1, graph.getMedialDSs().size());
 		assertNotNull(graph.getMedialDSs());
-		URI audioURI = testFolderURI.appendSegment("audio").appendSegment("sample.mp3");
+		URI audioURI = testFolderURI().appendSegment("audio").appendSegment("sample.mp3");
 		assertEquals(audioURI, graph.getMedialDSs().get(0).getMediaReference());
 		assertEquals(1, graph.getSpans().size());
 		assertEquals(6, graph.getMedialRelations().size());
@@ -71,4 +71,66 @@ public class AudioDataTest extends PepperImporterTest {
 					rel.getTarget());
 		}
 	}
+
+	/**
+	 * Tests that the value of a feature, which is not declared to refer to
+	 * files, is mapped as it is.
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void whenAudioIsNoFileFeature_thenValueIsMappedAsText() {
+		((PepperModuleProperty<String>) getFixture().getProperties()
+				.getProperty(PAULAImporterProperties.PROP_FILE_FEATURE_NAMES)).setValue("video, image");
+		startAudioData();
+		SDocumentGraph graph = getFixture().getCorpusGraph().getDocuments().get(0).getDocumentGraph();
+		assertEquals(0, graph.getMedialDSs().size());
+		assertEquals(1, graph.getSpans().size());
+		assertEquals(1, graph.getSpans().get(0).getAnnotations().size());
+		SAnnotation audio = graph.getSpans().get(0).getAnnotations().iterator().next();
+		assertEquals("audio", audio.getName());
+		assertEquals("sample.mp3", audio.getValue());
+	}
+
+	/**
+	 * Tests that an audio file is found, when the corpus is stored in a ZIP
+	 * archive.
+	 */
+	@Test
+	public void whenCorpusIsArchived_thenAudioFileIsFound() throws IOException {
+		File tmpFolder = Files.createTempDirectory("paulaArchive").toFile();
+		File archive = new File(tmpFolder, "audioData3.zip");
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(archive))) {
+			PAULAImporterTest.zip(new File(getTestResources() + "audioData3/"), "", out);
+		}
+		try {
+			URI archiveURI = URI.createFileURI(archive.getAbsolutePath());
+			startAudioData(archiveURI);
+			SDocumentGraph graph = getFixture().getCorpusGraph().getDocuments().get(0).getDocumentGraph();
+			assertEquals(1, graph.getMedialDSs().size());
+			assertEquals(archiveURI.appendSegment("audio").appendSegment("sample.mp3"),
+					graph.getMedialDSs().get(0).getMediaReference());
+			assertEquals(6, graph.getMedialRelations().size());
+		} finally {
+			FileUtils.deleteDirectory(tmpFolder);
+		}
+	}
+
+	private URI testFolderURI() {
+		return URI.createFileURI(new File(getTestResources() + "audioData3/").getAbsolutePath());
+	}
+
+	private void startAudioData() {
+		startAudioData(testFolderURI());
+	}
+
+	private void startAudioData(URI testFolderURI) {
+
+		// creating and setting corpus definition
+		CorpusDesc corpDef = new CorpusDesc();
+		corpDef.setCorpusPath(testFolderURI).getFormatDesc().setFormatName("xml").setFormatVersion("1.0");
+		getFixture().setCorpusDesc(corpDef);
+
+		// runs the PepperModule
+		this.start();
+	}
 }
\ No newline at end of file
@@ -19,6 +19,14 @@ package org.corpus_tools.peppermodules.paula.importer;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.FileUtils;
 import org.corpus_tools.pepper.testFramework.PepperTestUtil;
 import org.corpus_tools.peppermodules.paula.PAULAImporter;
 import org.eclipse.emf.common.util.URI;
@@ -69,4 +77,95 @@ public class IsImportableTest {
 		URI corpusPath = URI.createFileURI(getTestResources() + "mixedContent/");
 		assertEquals(Double.valueOf(1.0), getFixture().isImportable(corpusPath));
 	}
+
+	private static final String PAULA_CONTENT = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+			+ "<paula version=\"1.1\"><header paula_id=\"doc.text\"/><body>a b</body></paula>";
+
+	@Test
+	public void whenCorpusPathContainsCompressedPaulaFiles_thenReturn1() throws IOException {
+		File corpusPath = Files.createTempDirectory("paulaCompressed").toFile();
+		File documentPath = new File(corpusPath, "doc");
+		documentPath.mkdirs();
+		try (OutputStream out = new GZIPOutputStream(new FileOutputStream(new File(documentPath, "doc.text.xml.gz")))) {
+			out.write(PAULA_CONTENT.getBytes("UTF-8"));
+		}
+		try {
+			assertEquals(Double.valueOf(1.0),
+					getFixture().isImportable(URI.createFileURI(corpusPath.getAbsolutePath())));
+		} finally {
+			FileUtils.deleteDirectory(corpusPath);
+		}
+	}
+
+	/**
+	 * Checks that the result is cached by the importer for an unchanged corpus
+	 * path and detected again, when the modification time of a sampled file
+	 * changes.
+	 */
+	@Test
+	public void whenCorpusPathIsUnchanged_thenResultIsCached() throws IOException {
+		File corpusPath = Files.createTempDirectory("paulaCache").toFile();
+		File paulaFile = new File(corpusPath, "doc.text.xml");
+		FileUtils.writeStringToFile(paulaFile, PAULA_CONTENT, "UTF-8");
+		long lastModified = 1000000000000L;
+		paulaFile.setLastModified(lastModified);
+		corpusPath.setLastModified(lastModified);
+		URI corpusURI = URI.createFileURI(corpusPath.getAbsolutePath());
+		try {
+			assertEquals(Double.valueOf(1.0), getFixture().isImportable(corpusURI));
+
+			// not detected again, since the corpus path seems to be unchanged
+			FileUtils.writeStringToFile(paulaFile, "no paula", "UTF-8");
+			paulaFile.setLastModified(lastModified);
+			corpusPath.setLastModified(lastModified);
+			assertEquals(Double.valueOf(1.0), getFixture().isImportable(corpusURI));
+			// another importer does not share the cache
+			assertEquals(Double.valueOf(0.0), new PAULAImporter().isImportable(corpusURI));
+
+			paulaFile.setLastModified(lastModified + 1000);
+			assertEquals(Double.valueOf(0.0), getFixture().isImportable(corpusURI));
+		} finally {
+			FileUtils.deleteDirectory(corpusPath);
+		}
+	}
+
+	/**
+	 * Checks that the result is detected again, when a file in a sub folder
+	 * of the corpus path is changed or added, although the modification time
+	 * of the corpus path itself does not change.
+	 */
+	@Test
+	public void whenFileInSubFolderChanges_thenResultIsDetectedAgain() throws IOException {
+		File corpusPath = Files.createTempDirectory("paulaCacheNested").toFile();
+		File documentPath = new File(corpusPath, "doc");
+		documentPath.mkdirs();
+		File textFile = new File(documentPath, "doc.text.xml");
+		FileUtils.writeStringToFile(textFile, "no paula", "UTF-8");
+		long lastModified = 1000000000000L;
+		textFile.setLastModified(lastModified);
+		documentPath.setLastModified(lastModified);
+		corpusPath.setLastModified(lastModified);
+		URI corpusURI = URI.createFileURI(corpusPath.getAbsolutePath());
+		try {
+			assertEquals(Double.valueOf(0.0), getFixture().isImportable(corpusURI));
+
+			FileUtils.writeStringToFile(textFile, PAULA_CONTENT, "UTF-8");
+			textFile.setLastModified(lastModified + 1000);
+			corpusPath.setLastModified(lastModified);
+			assertEquals(Double.valueOf(1.0), getFixture().isImportable(corpusURI));
+
+			FileUtils.writeStringToFile(textFile, "no paula", "UTF-8");
+			textFile.setLastModified(lastModified);
+			assertEquals(Double.valueOf(0.0), getFixture().isImportable(corpusURI));
+
+			File tokFile = new File(documentPath, "doc.tok.xml");
+			FileUtils.writeStringToFile(tokFile, PAULA_CONTENT, "UTF-8");
+			textFile.setLastModified(lastModified);
+			documentPath.setLastModified(lastModified + 1000);
+			corpusPath.setLastModified(lastModified);
+			assertEquals(Double.valueOf(1.0), getFixture().isImportable(corpusURI));
+		} finally {
+			FileUtils.deleteDirectory(corpusPath);
+		}
+	}
 }
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.readers;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+public class PAULAStAXReaderTest {
+
+	@Test
+	public void whenParsingSystemDoctype_thenNameAndSystemIdAreExtracted() {
+		assertArrayEquals(new String[] { "paula", null, "paula_mark.dtd" },
+				PAULAStAXReader.parseDoctype("<!DOCTYPE paula SYSTEM \"paula_mark.dtd\">"));
+		assertArrayEquals(new String[] { "paula", null, "paula_feat.dtd" },
+				PAULAStAXReader.parseDoctype("<!DOCTYPE  paula\n SYSTEM 'paula_feat.dtd' >"));
+	}
+
+	@Test
+	public void whenParsingPublicDoctype_thenAllIdsAreExtracted() {
+		assertArrayEquals(new String[] { "paula", "-//PAULA//mark", "http://example.org/paula_mark.dtd" },
+				PAULAStAXReader.parseDoctype(
+						"<!DOCTYPE paula PUBLIC \"-//PAULA//mark\" \"http://example.org/paula_mark.dtd\">"));
+	}
+
+	@Test
+	public void whenParsingDoctypeWithoutExternalId_thenIdsAreNull() {
+		assertArrayEquals(new String[] { "paula", null, null },
+				PAULAStAXReader.parseDoctype("<!DOCTYPE paula [<!ELEMENT paula ANY>]>"));
+	}
+}
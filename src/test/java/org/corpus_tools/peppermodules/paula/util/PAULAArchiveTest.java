@@ -0,0 +1,104 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PAULAArchiveTest {
+
+	private File tmpFolder = null;
+	private File archive = null;
+
+	@Before
+	public void beforeEach() throws IOException {
+		tmpFolder = Files.createTempDirectory("paulaArchive").toFile();
+		archive = new File(tmpFolder, "corpus.zip");
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(archive))) {
+			out.putNextEntry(new ZipEntry("doc/doc.text.xml"));
+			out.write("abc".getBytes("UTF-8"));
+			out.closeEntry();
+		}
+	}
+
+	@After
+	public void afterEach() throws IOException {
+		FileUtils.deleteDirectory(tmpFolder);
+	}
+
+	/**
+	 * Checks that a lookup in an archive, which nobody acquired, does not
+	 * leave the archive open.
+	 */
+	@Test
+	public void whenArchiveIsNotAcquired_thenLookupsCloseIt() {
+		File folder = new File(archive, "doc");
+		File entry = new File(folder, "doc.text.xml");
+		assertTrue(PAULAArchive.exists(entry));
+		assertTrue(PAULAArchive.isDirectory(folder));
+		assertEquals(1, PAULAArchive.listFiles(folder).length);
+		assertEquals(3, PAULAArchive.getSize(entry));
+		assertFalse(PAULAArchive.isOpen(archive));
+	}
+
+	/**
+	 * Checks that the archive is kept open while a stream on one of its
+	 * entries is open, even if nobody acquired the archive.
+	 */
+	@Test
+	public void whenStreamIsOpen_thenArchiveIsOpenUntilStreamIsClosed() throws IOException {
+		InputStream in = PAULAArchive.openInputStream(new File(archive, "doc/doc.text.xml"));
+		try {
+			assertTrue(PAULAArchive.isOpen(archive));
+			assertEquals('a', in.read());
+		} finally {
+			in.close();
+		}
+		assertFalse(PAULAArchive.isOpen(archive));
+	}
+
+	/**
+	 * Checks that lookups do not close an acquired archive and that it is
+	 * closed, when it is released.
+	 */
+	@Test
+	public void whenArchiveIsAcquired_thenItIsOpenUntilReleased() {
+		PAULAArchive acquired = PAULAArchive.acquire(archive);
+		try {
+			assertTrue(PAULAArchive.exists(new File(archive, "doc/doc.text.xml")));
+			assertTrue(PAULAArchive.isOpen(archive));
+		} finally {
+			PAULAArchive.release(acquired);
+		}
+		assertFalse(PAULAArchive.isOpen(archive));
+	}
+}
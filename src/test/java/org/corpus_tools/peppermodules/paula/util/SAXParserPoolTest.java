@@ -0,0 +1,73 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.StringReader;
+
+import javax.xml.parsers.SAXParser;
+
+import org.junit.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+public class SAXParserPoolTest {
+
+	@Test
+	public void whenParserIsReleased_thenItIsReusedInSameThread() throws Exception {
+		SAXParser parser = SAXParserPool.borrow();
+		SAXParserPool.release(parser);
+		long reused = SAXParserPool.getNumOfReusedParsers();
+		assertSame(parser, SAXParserPool.borrow());
+		assertEquals(reused + 1, SAXParserPool.getNumOfReusedParsers());
+		SAXParserPool.release(parser);
+	}
+
+	@Test
+	public void whenParserIsInUse_thenNestedBorrowReturnsOtherParser() throws Exception {
+		SAXParser outer = SAXParserPool.borrow();
+		SAXParser inner = SAXParserPool.borrow();
+		assertNotSame(outer, inner);
+		SAXParserPool.release(inner);
+		SAXParserPool.release(outer);
+	}
+
+	@Test
+	public void whenParserIsReused_thenHandlersAreReset() throws Exception {
+		final StringBuilder elements = new StringBuilder();
+		SAXParser parser = SAXParserPool.borrow();
+		parser.getXMLReader().setContentHandler(new DefaultHandler() {
+			@Override
+			public void startElement(String uri, String localName, String qName, Attributes attributes) {
+				elements.append(qName);
+			}
+		});
+		parser.getXMLReader().parse(new InputSource(new StringReader("<a><b/></a>")));
+		assertEquals("ab", elements.toString());
+		SAXParserPool.release(parser);
+
+		parser = SAXParserPool.borrow();
+		parser.getXMLReader().parse(new InputSource(new StringReader("<c/>")));
+		assertEquals("ab", elements.toString());
+		SAXParserPool.release(parser);
+	}
+}
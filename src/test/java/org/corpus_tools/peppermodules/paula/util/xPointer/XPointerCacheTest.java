@@ -0,0 +1,119 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.util.xPointer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class XPointerCacheTest {
+
+	private static final List<String> IDS = Arrays.asList("doc.tok.xml#tok_1", "doc.tok.xml#tok_2");
+
+	/** versions of the files used by the fixture **/
+	private Map<String, Integer> versions = null;
+	private XPointerCache<String> fixture = null;
+
+	@Before
+	public void beforeEach() {
+		versions = new HashMap<>();
+		fixture = createCache(10);
+	}
+
+	private XPointerCache<String> createCache(int maxSize) {
+		return new XPointerCache<String>(maxSize, new XPointerCache.Versions() {
+			@Override
+			public int getVersion(String doc) {
+				Integer version = versions.get(doc);
+				return (version == null) ? 0 : version;
+			}
+		});
+	}
+
+	private List<String> get(String xmlBase, String href) {
+		Collection<String> ids = fixture.get(xmlBase, href);
+		return (ids == null) ? null : new ArrayList<>(ids);
+	}
+
+	@Test
+	public void whenHrefIsCached_thenCountHit() {
+		assertNull(fixture.get("doc.tok.xml", "#tok_1"));
+		fixture.put("doc.tok.xml", "#tok_1", IDS, Collections.<String> emptyList());
+		assertEquals(IDS, get("doc.tok.xml", "#tok_1"));
+		assertNull(fixture.get("other.tok.xml", "#tok_1"));
+		assertEquals(1, fixture.getHits());
+		assertEquals(2, fixture.getMisses());
+	}
+
+	@Test
+	public void whenReferredFileChanges_thenEntryIsInvalid() {
+		String range = "#xpointer(id('tok_1')/range-to(id('tok_2')))";
+		versions.put("doc.tok.xml", 2);
+		fixture.put("doc.tok.xml", range, IDS, Collections.singletonList("doc.tok.xml"));
+		versions.put("other.tok.xml", 5);
+		assertEquals(IDS, get("doc.tok.xml", range));
+
+		versions.put("doc.tok.xml", 3);
+		assertNull(fixture.get("doc.tok.xml", range));
+		assertEquals(0, fixture.size());
+	}
+
+	@Test
+	public void whenVersionsArePassed_thenEntryIsCheckedAgainstThem() {
+		String range = "#xpointer(id('tok_1')/range-to(id('tok_2')))";
+		XPointerCache.Versions passedVersions = new XPointerCache.Versions() {
+			@Override
+			public int getVersion(String doc) {
+				return 7;
+			}
+		};
+		fixture.put("doc.tok.xml", range, IDS, Collections.singletonList("doc.tok.xml"), passedVersions);
+		assertEquals(IDS, new ArrayList<>(fixture.get("doc.tok.xml", range, passedVersions)));
+		assertNull(fixture.get("doc.tok.xml", range));
+	}
+
+	@Test
+	public void whenCacheIsFull_thenLeastRecentlyUsedEntryIsRemoved() {
+		fixture = createCache(2);
+		fixture.put(null, "#tok_1", IDS, Collections.<String> emptyList());
+		fixture.put(null, "#tok_2", IDS, Collections.<String> emptyList());
+		fixture.get(null, "#tok_1");
+		fixture.put(null, "#tok_3", IDS, Collections.<String> emptyList());
+		assertEquals(2, fixture.size());
+		assertNull(fixture.get(null, "#tok_2"));
+		assertEquals(IDS, get(null, "#tok_1"));
+	}
+
+	@Test
+	public void whenCacheIsDisabled_thenNothingIsCached() {
+		fixture = createCache(0);
+		fixture.put(null, "#tok_1", IDS, Collections.<String> emptyList());
+		assertNull(fixture.get(null, "#tok_1"));
+		assertEquals(0, fixture.size());
+	}
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright 2009 Humboldt-Universität zu Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.paula.util.xPointer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Vector;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+/**
+ * Checks that {@link XPtrInterpreter} returns the same results as its former
+ * implementation based on regular expressions {@link RegexXPtrInterpreter}.
+ * Shorthand pointers separated by blanks like '#tok_1 #tok_2' were not
+ * supported by the former implementation, the mapper split such hrefs at
+ * blanks and interpreted each part on its own. For these hrefs the results
+ * are compared to the split interpretation.
+ */
+public class XPtrInterpreterDifferentialTest {
+
+	private static final String[] CORPUS_FOLDERS = { "src/main/resources/selfTests/", "src/test/resources/" };
+
+	private static final Pattern PATTERN_BASE = Pattern.compile("xml:base=\"([^\"]*)\"");
+	private static final Pattern PATTERN_HREF = Pattern.compile("xlink:href=\"([^\"]*)\"");
+
+	/** hand made expressions, including case variants, blanks and errors **/
+	private static final String[] EXPRESSIONS = { "#tok_1", " #tok_1 ", "# tok_1", "#a.b-c_d", "#xpointer",
+			"#XPOINTER(ID('tok_1')/RANGE-TO(ID('tok_5')))", "#xpointer(id('tok_1')/range-to(id('tok_5')))",
+			"#xpointer(id( 'tok_1' )/range-to(id(' tok_5 ')))", "#xpointer (id('tok_1')/range-to(id('tok_5')))",
+			"#xpointer(id('tok_1')/range-to)id('tok_5')))", "#xpointer(id('tok_1'))",
+			"#xpointer(id('tok_1')/range-to(id('tok_5'))", "#xpointer(id('tok_1')/range-to(id('tok_5'))))",
+			"#xpointer(string-range(//body,'',1,5))", "#xpointer(string-range(//body, '', 12, 0005))",
+			"#XPointer(String-Range(//Body,'',1,5))", "#xpointer(string-range(//body,'',1))",
+			"#xpointer(string-range(//body,'a',1,5))", "(#tok_1,#tok_2)", "( #tok_1 , #tok_2 )", "(#tok_1)",
+			"(#tok_1,)", "(#tok_1 #tok_2)", "(#tok_1,#tok_2", "(#tok_1,doc.tok.xml#tok_2)",
+			"(doc.tok.xml#tok_1,other.tok.xml#tok_2)", "(#tok_1,doc.tok#tok_2)",
+			"(#xpointer(id('tok_6')/range-to(id('tok_8'))),#xpointer(id('tok_9')/range-to(id('tok_10'))))",
+			"(#tok_1,#xpointer(id('tok_6')/range-to(id('tok_8'))))",
+			"(#xpointer(string-range(//body,'',1,5)))", "#tok_1 #tok_2", " #tok_1  #tok_2 ", "doc.tok.xml",
+			"doc.TOK.XML", " doc.tok.xml ", "doc.tok.xml#tok_1", "doc.tok.XML#tok_1", "doc.txt", ".xml", "#",
+			"#tok_1#tok_2", "tok_1", "", " ", "()", "(", "#tok_1)", "#tok_1,#tok_2" };
+
+	private static final String[] BASES = { "doc.tok.xml", null };
+
+	/**
+	 * Compares the results of both interpreters for all hrefs contained in
+	 * the corpora of this project.
+	 */
+	@Test
+	public void whenInterpretingHrefsOfTestCorpora_thenResultIsSameAsRegexInterpreter() throws IOException {
+		int numOfHrefs = 0;
+		for (String folder : CORPUS_FOLDERS) {
+			Collection<File> files = FileUtils.listFiles(new File(folder), new String[] { "xml" }, true);
+			for (File file : files) {
+				String content = FileUtils.readFileToString(file, "UTF-8");
+				Matcher baseMatcher = PATTERN_BASE.matcher(content);
+				String base = baseMatcher.find() ? baseMatcher.group(1) : null;
+				for (String href : getHrefs(content)) {
+					assertSameResult(base, href);
+					numOfHrefs++;
+				}
+			}
+		}
+		assertTrue(numOfHrefs > 100);
+	}
+
+	/**
+	 * Compares the results of both interpreters for hand made expressions.
+	 */
+	@Test
+	public void whenInterpretingExpressions_thenResultIsSameAsRegexInterpreter() {
+		for (String base : BASES) {
+			for (String ex : EXPRESSIONS) {
+				assertSameResult(base, ex);
+			}
+		}
+	}
+
+	/**
+	 * The former implementation interpreted a range behind a blank in a
+	 * sequence as shorthand pointer to 'xpointer'.
+	 */
+	@Test
+	public void whenSequenceContainsBlankBeforeRange_thenRangeIsInterpreted() throws Exception {
+		XPtrInterpreter fixture = new XPtrInterpreter();
+		fixture.setInterpreter("base.xml",
+				"(#xpointer(id('tok_6')/range-to(id('tok_8'))), #xpointer(id('tok_9')/range-to(id('tok_10'))))");
+		List<XPtrRef> refs = fixture.getResult();
+		assertEquals(2, refs.size());
+		assertTrue(refs.get(1).isRange());
+		assertEquals("tok_9", refs.get(1).getLeft());
+		assertEquals("tok_10", refs.get(1).getRight());
+	}
+
+	private static Set<String> getHrefs(String content) {
+		Set<String> retVal = new LinkedHashSet<>();
+		Matcher matcher = PATTERN_HREF.matcher(content);
+		while (matcher.find()) {
+			retVal.add(matcher.group(1).replace("&apos;", "'").replace("&quot;", "\""));
+		}
+		return retVal;
+	}
+
+	private static void assertSameResult(String base, String ex) {
+		String message = "base: " + base + ", xpointer: " + ex;
+		List<String> expected = describe(base, ex, true);
+		if (isSplitByMapper(base, ex)) {
+			List<String> actual = describe(base, ex, false);
+			expected = describeSplit(base, ex);
+			assertEquals(message, expected, actual.subList(1, actual.size()));
+			assertEquals(message, expected, describe(base, new XPointer(ex)));
+			return;
+		}
+		assertEquals(message, expected, describe(base, ex, false));
+		// the parsed pointer passed to the mapper resolves the same targets
+		assertEquals(message, expected.subList(1, expected.size()), describe(base, new XPointer(ex)));
+	}
+
+	/**
+	 * @return true, if the former implementation failed for an href
+	 *         containing blanks, which was split by the mapper
+	 */
+	private static boolean isSplitByMapper(String base, String ex) {
+		if (!ex.trim().contains(" ")) {
+			return false;
+		}
+		try {
+			RegexXPtrInterpreter interpreter = new RegexXPtrInterpreter();
+			interpreter.setInterpreter(base, ex);
+			interpreter.getResult();
+			return false;
+		} catch (Exception e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Describes the references of an href split at blanks, where each part is
+	 * interpreted by the former implementation.
+	 */
+	private static List<String> describeSplit(String base, String ex) {
+		List<String> retVal = new ArrayList<>();
+		try {
+			for (String part : ex.trim().split("\\s+")) {
+				RegexXPtrInterpreter interpreter = new RegexXPtrInterpreter();
+				interpreter.setInterpreter(base, part);
+				describe(interpreter.getResult(), retVal);
+			}
+		} catch (Exception e) {
+			retVal.add(e.getClass().getSimpleName());
+		}
+		return retVal;
+	}
+
+	/**
+	 * Creates a description of the interpretation of the expression. The
+	 * first entry contains the document, the pointer and its type, the
+	 * following ones all references or the type of the thrown exception.
+	 */
+	private static List<String> describe(String base, String ex, boolean useRegex) {
+		List<String> retVal = new ArrayList<>();
+		try {
+			Vector<XPtrRef> refs = null;
+			if (useRegex) {
+				RegexXPtrInterpreter interpreter = new RegexXPtrInterpreter();
+				interpreter.setInterpreter(base, ex);
+				retVal.add(interpreter.getDoc() + " " + interpreter.getXPtr() + " " + interpreter.getXPtrType());
+				refs = interpreter.getResult();
+			} else {
+				XPtrInterpreter interpreter = new XPtrInterpreter();
+				interpreter.setInterpreter(base, ex);
+				retVal.add(interpreter.getDoc() + " " + interpreter.getXPtr() + " " + interpreter.getXPtrType());
+				refs = interpreter.getResult();
+			}
+			describe(refs, retVal);
+		} catch (Exception e) {
+			if (retVal.isEmpty()) {
+				retVal.add(null);
+			}
+			retVal.add(e.getClass().getSimpleName());
+		}
+		return retVal;
+	}
+
+	private static List<String> describe(String base, XPointer xPointer) {
+		List<String> retVal = new ArrayList<>();
+		try {
+			describe(xPointer.getResult(base), retVal);
+		} catch (Exception e) {
+			retVal.add(e.getClass().getSimpleName());
+		}
+		return retVal;
+	}
+
+	private static void describe(List<XPtrRef> refs, List<String> description) throws Exception {
+		for (XPtrRef ref : refs) {
+			if (ref.isRange()) {
+				description.add(ref.getType() + " " + ref.getDoc() + " " + ref.getLeft() + " " + ref.getRight());
+			} else {
+				description.add(ref.getType() + " " + ref.getDoc() + " " + ref.getID());
+			}
+		}
+	}
+}
@@ -96,14 +96,52 @@ public class XPtrInterpreterTest extends TestCase {
 		assertNotNull(xPtrRefs.get(1));
 		assertEquals(base, xPtrRefs.get(1).getDoc());
 		assertEquals(POINTERTYPE.ELEMENT, xPtrRefs.get(1).getType());
+		assertEquals(true, xPtrRefs.get(1).isRange());
+		assertEquals("tok_6", xPtrRefs.get(1).getLeft());
+		assertEquals("tok_8", xPtrRefs.get(1).getRight());
+	}
+
+	/**
+	 * Tests if the {@link XPtrInterpreter} parses the start and the length of
+	 * a string range.
+	 * <ul>
+	 * <li>#xpointer(string-range(//body,'',12,5))</li>
+	 * </ul>
+	 * 
+	 * @throws Exception
+	 * 
+	 */
+	public void testStringRange() throws Exception {
+		getFixture().setBase("base.text.xml");
+		getFixture().setXPtr("#xpointer(string-range(//body,'',12,5))");
+		Vector<XPtrRef> xPtrRefs = getFixture().getResult();
+		assertEquals(1, xPtrRefs.size());
+		assertEquals(POINTERTYPE.TEXT, xPtrRefs.get(0).getType());
+		assertEquals("base.text.xml", xPtrRefs.get(0).getDoc());
+		assertEquals(12, xPtrRefs.get(0).getStart());
+		assertEquals(5, xPtrRefs.get(0).getLength());
+	}
 
-		// TODO currently, the following cannot be tested, because of the
-		// XPtrInterpreter, does not work correctly. Before solving the prolem,
-		// a correct solution of how XPointers work must be found and introduced
-		// in the PAULA standard.
-		// assertEquals(true, xPtrRefs.get(1).isRange());
-		// assertEquals("tok_6", xPtrRefs.get(0).getLeft());
-		// assertEquals("tok_8", xPtrRefs.get(0).getRight());
+	/**
+	 * Tests if the {@link XPtrInterpreter} can parse a sequence of shorthand
+	 * pointers separated by blanks.
+	 * <ul>
+	 * <li>#ref1 ref2 #ref3</li>
+	 * </ul>
+	 * 
+	 * @throws Exception
+	 * 
+	 */
+	public void testBlankSeparatedShorthandPointers() throws Exception {
+		getFixture().setBase("base.xml");
+		getFixture().setXPtr("#ref1 ref2  #ref3");
+		assertEquals(XPtrInterpreter.TOKENTYPE.TOKENSEQ, getFixture().getXPtrType());
+		Vector<XPtrRef> xPtrRefs = getFixture().getResult();
+		assertEquals(3, xPtrRefs.size());
+		assertEquals("ref1", xPtrRefs.get(0).getID());
+		assertEquals("ref2", xPtrRefs.get(1).getID());
+		assertEquals("ref3", xPtrRefs.get(2).getID());
+		assertEquals("base.xml", xPtrRefs.get(2).getDoc());
 	}
 
 	public void testBla() {